@@ -11,9 +11,11 @@ import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
@@ -24,38 +26,72 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiClassOwner;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
 import com.intellij.psi.util.PsiTreeUtil;
 import io.yapix.base.StepResult;
 import io.yapix.base.util.ConcurrentUtils;
 import io.yapix.base.util.NotificationUtils;
-import io.yapix.base.util.PsiFileUtils;
 import io.yapix.config.DefaultConstants;
+import io.yapix.config.UploadFingerprintStore;
 import io.yapix.config.YapixConfig;
 import io.yapix.config.YapixConfigUtils;
 import io.yapix.model.Api;
 import io.yapix.parse.CompositeApiParser;
-import io.yapix.parse.IApiParser;
+import io.yapix.parse.index.ControllerIndex;
 import io.yapix.parse.model.ClassParseData;
 import io.yapix.parse.model.MethodParseData;
+import io.yapix.parse.util.SchemaRefInliner;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * API文档解析处理的动作模板类
  */
 public abstract class AbstractAction extends AnAction {
 
+    private static final Logger logger = LoggerFactory.getLogger(AbstractAction.class);
+
+    /**
+     * 上传线程数
+     */
+    private static final int UPLOAD_THREADS = 4;
+
+    /**
+     * 边解析边上传时, 待上传接口队列的容量
+     */
+    private static final int UPLOAD_QUEUE_SIZE = 64;
+
+    /**
+     * 待上传接口队列的结束标记
+     */
+    private static final Api END_OF_APIS = new Api();
+
     /**
      * 配置文件是否必须
      */
@@ -87,14 +123,17 @@ public abstract class AbstractAction extends AnAction {
         if (!before(event, config)) {
             return;
         }
-        // 3.解析文档
-        StepResult<List<Api>> apisResult = parse(data, config);
-        if (!apisResult.isContinue()) {
+        // 上传类动作: 边解析边上传
+        ApiUploadHandler uploadHandler = createUploadHandler(event, config);
+        if (uploadHandler != null) {
+            parseAndUploadAsync(data, config, uploadHandler);
             return;
         }
-        // 4.文档处理
-        List<Api> apis = apisResult.getData();
-        handle(event, config, apis);
+        // 3.解析文档: 在后台非阻塞读操作中解析, 完成后回到事件线程
+        parseInBackground(data, config, apis -> {
+            // 4.文档处理
+            handle(event, config, apis);
+        });
     }
 
     /**
@@ -109,14 +148,68 @@ public abstract class AbstractAction extends AnAction {
      */
     public abstract void handle(AnActionEvent event, YapixConfig config, List<Api> apis);
 
+    /**
+     * 创建上传处理器
+     *    上传类动作返回非null, 则解析与上传以流水线方式执行, 不再调用 handle()
+     */
+    protected ApiUploadHandler createUploadHandler(AnActionEvent event, YapixConfig config) {
+        return null;
+    }
+
+    /**
+     * 后台解析文档模型数据, 可取消, 解析成功后在事件线程中回调
+     */
+    private void parseInBackground(EventData data, YapixConfig config, Consumer<List<Api>> callback) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(data.project, DefaultConstants.NAME, true) {
+
+            private final List<Api> apis = Lists.newLinkedList();
+
+            private StepResult<Integer> result;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                result = parse(data, config, indicator, apis::addAll);
+            }
+
+            @Override
+            public void onSuccess() {
+                if (result != null && result.isContinue()) {
+                    callback.accept(apis);
+                }
+            }
+        });
+    }
+
+    /**
+     * 执行非阻塞读操作: 等待索引完成, 遇到写操作时自动取消并重新执行, 调用线程等待时不持有读锁
+     */
+    private static <T> T readInSmartMode(Project project, ProgressIndicator indicator, Callable<T> action) {
+        return ReadAction.nonBlocking(action)
+                .inSmartMode(project)
+                .wrapProgress(indicator)
+                .executeSynchronously();
+    }
+
     /**
      * 解析文档模型数据
+     *
+     * @param apiConsumer 接口消费者, 批量解析时每解析完一个controller就按顺序回调一次
+     * @return 解析出的接口数
      */
-    private StepResult<List<Api>> parse(EventData data, YapixConfig config) {
-        IApiParser parser = new CompositeApiParser(data.project, data.module, config);
+    private StepResult<Integer> parse(EventData data, YapixConfig config, ProgressIndicator indicator,
+            Consumer<List<Api>> apiConsumer) {
+        Project project = data.project;
+        CompositeApiParser parser = readInSmartMode(project, indicator,
+                () -> new CompositeApiParser(project, data.module, config));
+        // 引用模式: 上传目标都不支持类型引用, 交给消费者前先展开
+        Consumer<List<Api>> consumer = config.isSchemaRef()
+                ? apis -> apiConsumer.accept(SchemaRefInliner.inline(apis, config))
+                : apiConsumer;
         // 1 选中方法
         if (data.selectedMethod != null) {
-            MethodParseData methodData = parser.parse(data.selectedMethod);
+            PsiMethod method = data.selectedMethod;
+            MethodParseData methodData = readInSmartMode(project, indicator,
+                    () -> method.isValid() ? parser.parse(method) : null);
             if (methodData == null) {
                 NotificationUtils.notifyWarning(DefaultConstants.NAME,
                         "The current method is not a valid api or ignored");
@@ -126,12 +219,15 @@ public abstract class AbstractAction extends AnAction {
                 NotificationUtils.notifyWarning(DefaultConstants.NAME, "The current method must declare summary");
                 return StepResult.stop();
             }
-            return StepResult.ok(methodData.apis);
+            consumer.accept(methodData.apis);
+            return StepResult.ok(methodData.apis.size());
         }
 
         // 2 选中类
         if (data.selectedClass != null) {
-            ClassParseData controllerData = parser.parse(data.selectedClass);
+            PsiClass psiClass = data.selectedClass;
+            ClassParseData controllerData = readInSmartMode(project, indicator,
+                    () -> psiClass.isValid() ? parser.parse(psiClass) : null);
             if (controllerData == null) {
                 NotificationUtils.notifyWarning(DefaultConstants.NAME,
                         "The current class is not a valid controller or ignored");
@@ -141,35 +237,153 @@ public abstract class AbstractAction extends AnAction {
                 NotificationUtils.notifyWarning(DefaultConstants.NAME, "The current class must declare category");
                 return StepResult.stop();
             }
-            return StepResult.ok(controllerData.getApis());
+            consumer.accept(controllerData.getApis());
+            return StepResult.ok(controllerData.getApis().size());
         }
 
         // 3 批量： 选中多个包或文件
-        // 获取PsiClass: 从类文件(java/kotlin)中取得controller类
-        List<PsiClass> controllers = PsiFileUtils.getPsiClassByFile(data.selectedClassFiles, false);
+        // 获取PsiClass: 从controller索引中取得选中范围内的controller类, 用智能指针跨读操作引用
+        indicator.setText("Scanning controllers");
+        List<SmartPsiElementPointer<PsiClass>> controllers = readInSmartMode(project, indicator, () -> {
+            SmartPointerManager pointerManager = SmartPointerManager.getInstance(project);
+            return ControllerIndex.findControllers(project, data.selectedFiles).stream()
+                    .map(pointerManager::createSmartPsiElementPointer)
+                    .collect(Collectors.toList());
+        });
         if (controllers.isEmpty()) {
             NotificationUtils.notifyWarning(DefaultConstants.NAME, "Not found valid controller class");
             return StepResult.stop();
         }
 
-        // 从controller类中提取api接口信息
-        List<Api> apis = Lists.newLinkedList();
-        for (PsiClass controller : controllers) {
-            ClassParseData controllerData = parser.parse(controller);
-            if (controllerData == null) {
-                continue;
-            }
+        // 从controller类中提取api接口信息, 按controller顺序输出
+        indicator.setIndeterminate(false);
+        AtomicInteger apiCount = new AtomicInteger();
+        parseControllers(data, config, parser, controllers, indicator, controllerData -> {
             if (config.isStrict() && StringUtils.isEmpty(controllerData.declaredCategory)) {
-                continue;
+                return;
             }
             List<Api> controllerApis = controllerData.getApis();
             /*if (config.isStrict()) {
                 controllerApis = controllerApis.stream().filter(o -> StringUtils.isNotEmpty(o.getSummary()))
                         .collect(Collectors.toList());
             }*/
-            apis.addAll(controllerApis);
+            apiCount.addAndGet(controllerApis.size());
+            consumer.accept(controllerApis);
+        });
+        logger.debug("批量解析{}个controller, 类型结构缓存: {}", controllers.size(), parser.getSession().getSchemaCache());
+        return StepResult.ok(apiCount.get());
+    }
+
+    /**
+     * 批量解析controller类
+     *    每个controller一个读操作, 被写操作打断时只重做当前controller
+     *    按配置的线程数并行解析, 每个线程一个解析器(解析器有状态), 共享解析会话
+     *    解析结果按controllers的顺序回调, 回调后即释放
+     *
+     * @param resultConsumer 解析结果消费者, 忽略无效的controller
+     */
+    private void parseControllers(EventData data, YapixConfig config, CompositeApiParser parser,
+            List<SmartPsiElementPointer<PsiClass>> controllers, ProgressIndicator indicator,
+            Consumer<ClassParseData> resultConsumer) {
+        Project project = data.project;
+        int total = controllers.size();
+        int threads = Math.min(getParseThreads(config), total);
+        // 已完成但未按顺序输出的结果
+        ClassParseData[] results = new ClassParseData[total];
+        boolean[] finished = new boolean[total];
+        AtomicInteger nextOutput = new AtomicInteger();
+        // 是否有线程正在输出结果: 同一时刻只有一个线程输出, 以保证顺序
+        AtomicBoolean emitting = new AtomicBoolean();
+        AtomicInteger count = new AtomicInteger();
+        ThreadLocal<CompositeApiParser> threadParsers = ThreadLocal.withInitial(() -> readInSmartMode(project,
+                indicator, () -> new CompositeApiParser(parser.getSession())));
+        IntConsumer parseTask = i -> {
+            indicator.checkCanceled();
+            CompositeApiParser theParser = threads > 1 ? threadParsers.get() : parser;
+            SmartPsiElementPointer<PsiClass> pointer = controllers.get(i);
+            results[i] = readInSmartMode(project, indicator, () -> {
+                PsiClass controller = pointer.getElement();
+                if (controller == null) {
+                    return null;
+                }
+                indicator.setText(format("[%d/%d] %s", count.get() + 1, total, controller.getName()));
+                return theParser.parse(controller);
+            });
+            indicator.setFraction((double) count.incrementAndGet() / total);
+            // 按顺序输出已连续完成的结果
+            synchronized (finished) {
+                finished[i] = true;
+                // 正在输出的线程会接着输出本结果
+                if (!emitting.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+            // 在锁内取出结果, 在锁外输出: 输出可能阻塞(如上传队列已满), 不能阻塞其他解析线程
+            boolean released = false;
+            try {
+                while (!released) {
+                    List<ClassParseData> ready = new ArrayList<>();
+                    synchronized (finished) {
+                        for (int j = nextOutput.get(); j < total && finished[j]; j = nextOutput.incrementAndGet()) {
+                            if (results[j] != null) {
+                                ready.add(results[j]);
+                                results[j] = null;
+                            }
+                        }
+                        if (ready.isEmpty()) {
+                            emitting.set(false);
+                            released = true;
+                        }
+                    }
+                    ready.forEach(resultConsumer);
+                }
+            } finally {
+                if (!released) {
+                    synchronized (finished) {
+                        emitting.set(false);
+                    }
+                }
+            }
+        };
+
+        // 单线程
+        if (threads <= 1) {
+            for (int i = 0; i < total; i++) {
+                parseTask.accept(i);
+            }
+            return;
+        }
+
+        // 多线程
+        ExecutorService threadPool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = Lists.newArrayListWithExpectedSize(total);
+            for (int i = 0; i < total; i++) {
+                int index = i;
+                futures.add(threadPool.submit(() -> parseTask.accept(index)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            throw new ProcessCanceledException(e);
+        } catch (ExecutionException e) {
+            // 包括取消异常, 原样抛出
+            ExceptionUtils.rethrow(e.getCause());
+        } finally {
+            threadPool.shutdownNow();
         }
-        return StepResult.ok(apis);
+    }
+
+    /**
+     * 获取批量解析的线程数
+     */
+    private static int getParseThreads(YapixConfig config) {
+        Integer threads = config.getParseThreads();
+        if (threads == null || threads <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return threads;
     }
 
     /**
@@ -201,6 +415,121 @@ public abstract class AbstractAction extends AnAction {
     }
 
 
+    /**
+     * 边解析边上传
+     *    解析线程(生产者)把每个controller的接口放入有界队列, 上传线程(消费者)同时从队列中取出并上传,
+     *    解析与网络请求的时间相互重叠, 内存中只保留队列中的接口
+     */
+    private void parseAndUploadAsync(EventData data, YapixConfig config, ApiUploadHandler uploadHandler) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(data.project, DefaultConstants.NAME, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                BlockingQueue<Api> queue = new ArrayBlockingQueue<>(UPLOAD_QUEUE_SIZE);
+                ExecutorService threadPool = Executors.newFixedThreadPool(UPLOAD_THREADS);
+                AtomicInteger count = new AtomicInteger();
+                AtomicInteger successCount = new AtomicInteger();
+                AtomicReference<ApiUploadResult> firstResult = new AtomicReference<>();
+                // 增量上传: 待上传接口的指纹, 上传成功后记录
+                String target = uploadHandler.getTarget();
+                UploadFingerprintStore fingerprintStore = config.isIncremental() && target != null
+                        ? UploadFingerprintStore.getInstance(data.project) : null;
+                Map<Api, String> fingerprints = new ConcurrentHashMap<>();
+                AtomicInteger skipCount = new AtomicInteger();
+
+                // 消费者: 上传
+                List<Future<Object>> futures = Lists.newArrayListWithExpectedSize(UPLOAD_THREADS);
+                for (int i = 0; i < UPLOAD_THREADS; i++) {
+                    futures.add(threadPool.submit(() -> {
+                        for (Api api = queue.take(); api != END_OF_APIS; api = queue.take()) {
+                            // 已取消: 只消费不上传, 以便生产者尽快结束
+                            if (indicator.isCanceled()) {
+                                continue;
+                            }
+                            String text = format("[%d] %s %s", count.incrementAndGet(), api.getMethod(), api.getPath());
+                            indicator.setText2(text);
+                            ApiUploadResult result = uploadApi(api, uploadHandler.getApiConsumer());
+                            String fingerprint = fingerprints.remove(api);
+                            if (result != null) {
+                                successCount.incrementAndGet();
+                                firstResult.compareAndSet(null, result);
+                                if (fingerprint != null) {
+                                    fingerprintStore.record(target, api, fingerprint, result.getRemoteId());
+                                }
+                            }
+                        }
+                        return null;
+                    }));
+                }
+
+                // 生产者: 解析
+                try {
+                    parse(data, config, indicator, apis -> {
+                        for (Api api : apis) {
+                            // 增量上传: 跳过未变化的接口
+                            if (fingerprintStore != null) {
+                                String fingerprint = UploadFingerprintStore.fingerprint(api);
+                                if (fingerprintStore.isUnchanged(target, api, fingerprint, config.getLedgerVerifyDays())) {
+                                    skipCount.incrementAndGet();
+                                    continue;
+                                }
+                                fingerprints.put(api, fingerprint);
+                            }
+                            putQueue(queue, api, indicator);
+                        }
+                    });
+                } finally {
+                    try {
+                        for (int i = 0; i < UPLOAD_THREADS; i++) {
+                            queue.put(END_OF_APIS);
+                        }
+                    } catch (InterruptedException e) {
+                        threadPool.shutdownNow();
+                    }
+                    ConcurrentUtils.waitFuturesSilence(futures);
+                    ApiUploadResult uploadResult = firstResult.get();
+                    if (uploadResult != null) {
+                        String url = successCount.get() == 1 ? uploadResult.getApiUrl() : uploadResult.getCategoryUrl();
+                        notifyInfo("Upload successful", format("<a href=\"%s\">%s</a>", url, url));
+                    }
+                    if (skipCount.get() > 0) {
+                        notifyInfo(DefaultConstants.NAME, format("Skipped %d unchanged apis", skipCount.get()));
+                    }
+                    threadPool.shutdown();
+                    uploadHandler.getAfterAction().get();
+                }
+            }
+        });
+    }
+
+    /**
+     * 放入待上传队列, 队列满时等待, 等待期间响应取消
+     */
+    private static void putQueue(BlockingQueue<Api> queue, Api api, ProgressIndicator indicator) {
+        try {
+            while (!queue.offer(api, 100, TimeUnit.MILLISECONDS)) {
+                indicator.checkCanceled();
+            }
+        } catch (InterruptedException e) {
+            throw new ProcessCanceledException(e);
+        }
+    }
+
+    /**
+     * 上传单个接口, 失败时通知错误
+     *
+     * @return 上传结果, 失败返回null
+     */
+    private static ApiUploadResult uploadApi(Api api, Function<Api, ApiUploadResult> apiConsumer) {
+        try {
+            return apiConsumer.apply(api);
+        } catch (Exception e) {
+            notifyError(
+                    String.format("Upload failed: [%s %s]", api.getMethod(), api.getPath()),
+                    ExceptionUtils.getStackTrace(e));
+        }
+        return null;
+    }
+
     /**
      * 异步上传模板方法
      *
@@ -216,7 +545,7 @@ public abstract class AbstractAction extends AnAction {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
                 indicator.setIndeterminate(false);
-                int poolSize = apis.size() == 1 ? 1 : 4;
+                int poolSize = apis.size() == 1 ? 1 : UPLOAD_THREADS;
                 // 进度和并发
                 Semaphore semaphore = new Semaphore(poolSize);
                 ExecutorService threadPool = Executors.newFixedThreadPool(poolSize);
@@ -236,16 +565,11 @@ public abstract class AbstractAction extends AnAction {
                                 String text = format("[%d/%d] %s %s", count.incrementAndGet(), apis.size(),
                                         api.getMethod(), api.getPath());
                                 indicator.setText(text);
-                                return apiConsumer.apply(api);
-                            } catch (Exception e) {
-                                notifyError(
-                                        String.format("Upload failed: [%s %s]", api.getMethod(), api.getPath()),
-                                        ExceptionUtils.getStackTrace(e));
+                                return uploadApi(api, apiConsumer);
                             } finally {
                                 indicator.setFraction(fraction.addAndGet(step));
                                 semaphore.release();
                             }
-                            return null;
                         });
                         futures.add(future);
                     }
@@ -0,0 +1,26 @@
+package io.yapix.action
+
+import io.yapix.model.Api
+import java.util.function.Function
+import java.util.function.Supplier
+
+/**
+ * api上传处理器
+ */
+class ApiUploadHandler @JvmOverloads constructor(
+    /**
+     * 单个接口数据消费者: 上传接口
+     */
+    val apiConsumer: Function<Api, ApiUploadResult>,
+
+    /**
+     * 所有接口处理完毕后的回调执行，用于关闭资源
+     */
+    val afterAction: Supplier<*>,
+
+    /**
+     * 上传目标标识: 服务地址 + 项目, 用于增量上传; 为null则不支持增量上传
+     */
+    val target: String? = null
+) {
+}
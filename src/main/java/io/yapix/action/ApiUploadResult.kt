@@ -5,6 +5,10 @@ package io.yapix.action
  */
 data class ApiUploadResult(
     public var categoryUrl: String? = null,
-    public var apiUrl: String? = null
+    public var apiUrl: String? = null,
+    /**
+     * 接口的远程id, 记录到上传台账中, 参考 UploadFingerprintStore
+     */
+    public var remoteId: String? = null
 ) {
 }
@@ -41,7 +41,7 @@ public class EventData {
     public VirtualFile[] selectedFiles;
 
     /**
-     * 选择的Java/Kotlin文件
+     * 选择的Java/Kotlin文件, 需调用 resolveSelectedClassFiles() 才会扫描
      */
     //public List<PsiJavaFile> selectedJavaFiles;
     public List<PsiClassOwner> selectedClassFiles;
@@ -62,7 +62,20 @@ public class EventData {
     public boolean shouldHandle() {
         return project != null
                 && module != null
-                && (selectedClassFiles != null || selectedClass != null);
+                && (selectedFiles != null || selectedClass != null);
+    }
+
+    /**
+     * 递归扫描选择的文件, 获得Java/Kotlin文件
+     *    目录下文件可能很多, 不在事件线程中扫描, 需在读操作中调用
+     */
+    public List<PsiClassOwner> resolveSelectedClassFiles() {
+        // 读操作被写操作打断重做时, 之前扫描的文件可能已失效
+        boolean invalid = selectedClassFiles == null || selectedClassFiles.stream().anyMatch(f -> !f.isValid());
+        if (invalid && project != null && selectedFiles != null) {
+            selectedClassFiles = PsiFileUtils.getPsiClassFiles(project, selectedFiles);
+        }
+        return selectedClassFiles;
     }
 
     /**
@@ -74,9 +87,6 @@ public class EventData {
         data.project = event.getData(CommonDataKeys.PROJECT);
         data.module = event.getData(LangDataKeys.MODULE);
         data.selectedFiles = event.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
-        if (data.project != null && data.selectedFiles != null) {
-            data.selectedClassFiles = PsiFileUtils.getPsiClassFiles(data.project, data.selectedFiles);
-        }
         Editor editor = event.getDataContext().getData(CommonDataKeys.EDITOR);
         PsiFile editorFile = event.getDataContext().getData(CommonDataKeys.PSI_FILE);
         if (editor != null && editorFile != null) {
@@ -153,6 +153,28 @@ public class YapiClient extends AbstractClient {
         return gson.fromJson(data, YapiListInterfaceResponse.class);
     }
 
+    /**
+     * 批量导入接口
+     *
+     * @param merge 合并模式: normal, good, merge
+     * @param json  yapi导出格式的接口数据: [{name, desc, list: [接口]}]
+     */
+    public void importData(String merge, String json) {
+        JsonObject params = new JsonObject();
+        params.addProperty("type", "json");
+        params.addProperty("merge", merge);
+        params.addProperty("json", json);
+        params.addProperty("token", token);
+        requestPost(YapiConstants.yapiImportData, params);
+    }
+
+    /**
+     * 计算项目接口列表地址
+     */
+    public String calculateProjectUrl(Integer projectId) {
+        return format("%s/project/%d/interface/api", url, projectId);
+    }
+
     /**
      * 计算类别地址
      */
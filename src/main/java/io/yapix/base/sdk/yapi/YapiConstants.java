@@ -52,4 +52,9 @@ public interface YapiConstants {
      * 获取某个分类下接口列表
      */
     String yapiListByCatId = "/api/interface/list_cat";
+
+    /**
+     * 批量导入接口(开放接口, 需项目token)
+     */
+    String yapiImportData = "/api/open/import_data";
 }
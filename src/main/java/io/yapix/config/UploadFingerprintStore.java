@@ -0,0 +1,158 @@
+package io.yapix.config;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import io.yapix.model.Api;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 项目级别的上传台账, 用于增量上传.
+ * 记录每个上传目标中每个接口最近一次上传成功时的指纹、远程id及校验时间, 指纹未变化的接口不再上传, 无需任何网络请求;
+ * 超过校验周期的接口会重新上传一次, 由上传器与服务端比较, 以发现服务端被手动修改或删除的接口.
+ */
+@State(name = "YapixUploadFingerprints", storages = @Storage(StoragePathMacros.WORKSPACE_FILE))
+public class UploadFingerprintStore implements PersistentStateComponent<UploadFingerprintStore> {
+
+    private static final Gson gson = new Gson();
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * 台账: 上传目标#接口 -> 指纹|远程id|校验时间, 参考 Entry
+     *    旧版本只记录了指纹, 按无远程id、未校验处理
+     */
+    private Map<String, String> fingerprints = new HashMap<>();
+
+    public static UploadFingerprintStore getInstance(Project project) {
+        return ServiceManager.getService(project, UploadFingerprintStore.class);
+    }
+
+    @Nullable
+    @Override
+    public UploadFingerprintStore getState() {
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull UploadFingerprintStore state) {
+        XmlSerializerUtil.copyBean(state, this);
+    }
+
+    /**
+     * 计算接口指纹: 接口模型(路径、方法、参数、请求体/响应结构等)的哈希
+     */
+    public static String fingerprint(Api api) {
+        return Hashing.sha256().hashString(gson.toJson(api), StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * 接口自上次上传以来是否未变化, 且未超过校验周期
+     *
+     * @param target      上传目标
+     * @param api         接口
+     * @param fingerprint 接口当前指纹
+     * @param verifyDays  校验周期(天), 为空或0表示不校验
+     */
+    public synchronized boolean isUnchanged(String target, Api api, String fingerprint, Integer verifyDays) {
+        Entry entry = Entry.parse(fingerprints.get(key(target, api)));
+        if (entry == null || !fingerprint.equals(entry.fingerprint)) {
+            return false;
+        }
+        return verifyDays == null || verifyDays <= 0
+                || System.currentTimeMillis() - entry.verifiedAt < verifyDays * DAY_MILLIS;
+    }
+
+    /**
+     * 获取接口上次上传的远程id
+     */
+    @Nullable
+    public synchronized String getRemoteId(String target, Api api) {
+        Entry entry = Entry.parse(fingerprints.get(key(target, api)));
+        return entry != null ? entry.remoteId : null;
+    }
+
+    /**
+     * 记录接口上传成功
+     *
+     * @param remoteId 远程id, 未知时为null, 保留上次记录的id(如批量导入不返回id)
+     */
+    public synchronized void record(String target, Api api, String fingerprint, @Nullable String remoteId) {
+        if (remoteId == null) {
+            remoteId = getRemoteId(target, api);
+        }
+        Entry entry = new Entry(fingerprint, remoteId, System.currentTimeMillis());
+        fingerprints.put(key(target, api), entry.format());
+    }
+
+    /**
+     * 接口没有对应的PsiMethod标识, 以请求方法+路径标识接口
+     */
+    private static String key(String target, Api api) {
+        return target + "#" + api.getMethod() + " " + api.getPath();
+    }
+
+    /**
+     * 台账条目
+     */
+    private static class Entry {
+
+        private static final char SEPARATOR = '|';
+
+        /** 接口指纹 */
+        private final String fingerprint;
+
+        /** 远程id */
+        private final String remoteId;
+
+        /** 最近一次与服务端校验(上传)的时间 */
+        private final long verifiedAt;
+
+        private Entry(String fingerprint, String remoteId, long verifiedAt) {
+            this.fingerprint = fingerprint;
+            this.remoteId = remoteId;
+            this.verifiedAt = verifiedAt;
+        }
+
+        /**
+         * 解析: 指纹|远程id|校验时间, 兼容只有指纹的旧格式
+         */
+        static Entry parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            int idx1 = value.indexOf(SEPARATOR);
+            if (idx1 == -1) {
+                return new Entry(value, null, 0);
+            }
+            int idx2 = value.indexOf(SEPARATOR, idx1 + 1);
+            String remoteId = value.substring(idx1 + 1, idx2);
+            return new Entry(value.substring(0, idx1), remoteId.isEmpty() ? null : remoteId,
+                    Long.parseLong(value.substring(idx2 + 1)));
+        }
+
+        String format() {
+            return fingerprint + SEPARATOR + (remoteId == null ? "" : remoteId) + SEPARATOR + verifiedAt;
+        }
+    }
+
+    //---------------------------generated-------------------------------//
+
+    public synchronized Map<String, String> getFingerprints() {
+        return fingerprints;
+    }
+
+    public synchronized void setFingerprints(Map<String, String> fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+}
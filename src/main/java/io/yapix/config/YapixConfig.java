@@ -54,6 +54,12 @@ public class YapixConfig {
      */
     private String yapiProjectToken;
 
+    /**
+     * YApi批量导入的合并模式: normal(不覆盖), good(智能合并), merge(完全覆盖); 为空则逐个接口上传
+     *    批量导入使用开放接口, 需配置yapiProjectToken
+     */
+    private String yapiImportMode;
+
     /**
      * 返回值包装类
      */
@@ -79,6 +85,16 @@ public class YapixConfig {
      */
     private List<MockRule> mockRules;
 
+    /**
+     * 自定义类型映射: 类型 -> 数据类型, 覆盖 types.properties, 参考 TypeMappingTable
+     */
+    private Map<String, String> types;
+
+    /**
+     * 自定义mock映射: 类型 -> mock规则, 覆盖 mocks.properties
+     */
+    private Map<String, String> mocks;
+
     /**
      * 时间格式: 查询参数和表单
      */
@@ -89,7 +105,39 @@ public class YapixConfig {
      */
     private String dateTimeFormatJson;
 
+    /**
+     * 批量解析线程数: 0表示按cpu核数
+     */
+    private Integer parseThreads;
+
+    /**
+     * 增量上传: 只上传自上次上传成功以来有变化的接口
+     */
+    private boolean incremental = false;
+
+    /**
+     * 增量上传的校验周期(天): 超过周期的接口即使未变化也重新上传一次, 以便与服务端校验; 0表示不校验
+     */
+    private Integer ledgerVerifyDays;
+
+    /**
+     * 类型引用模式: 每个bean类只展开一次为类型定义, 其他位置引用该定义
+     */
+    private boolean schemaRef = false;
+
+    /**
+     * 类型结构的最大展开深度(嵌套bean层数): 0表示不限制
+     */
+    private Integer schemaMaxDepth;
+
+    /**
+     * 类型结构的最大节点数(单个请求体/响应体的属性数): 0表示不限制
+     */
+    private Integer schemaMaxNodes;
+
     private static final Pattern BEANS_PATTERN = Pattern.compile("^beans\\[(.+)]$");
+    private static final Pattern TYPES_PATTERN = Pattern.compile("^types\\[(.+)]$");
+    private static final Pattern MOCKS_PATTERN = Pattern.compile("^mocks\\[(.+)]$");
 
     /**
      * 解析配置
@@ -100,6 +148,7 @@ public class YapixConfig {
         String yapiProjectId = properties.getProperty("yapiProjectId", "");
         String yapiUrl = properties.getProperty("yapiUrl", "");
         String yapiProjectToken = properties.getProperty("yapiProjectToken", "");
+        String yapiImportMode = properties.getProperty("yapiImportMode", "");
         String rap2ProjectId = properties.getProperty("rap2ProjectId", "");
         String eolinkerProjectId = properties.getProperty("eolinkerProjectId", "");
         String showdocProjectId = properties.getProperty("showdocProjectId", "");
@@ -109,6 +158,12 @@ public class YapixConfig {
         String mockRules = properties.getProperty("mockRules");
         String dateTimeFormatMvc = properties.getProperty("dateTimeFormatMvc", "");
         String dateTimeFormatJson = properties.getProperty("dateTimeFormatJson", "");
+        String parseThreads = properties.getProperty("parseThreads", "");
+        String incremental = properties.getProperty("incremental", "");
+        String ledgerVerifyDays = properties.getProperty("ledgerVerifyDays", "");
+        String schemaRef = properties.getProperty("schemaRef", "");
+        String schemaMaxDepth = properties.getProperty("schemaMaxDepth", "");
+        String schemaMaxNodes = properties.getProperty("schemaMaxNodes", "");
 
         YapixConfig config = new YapixConfig();
         if (StringUtils.isNotEmpty(strict)) {
@@ -116,6 +171,7 @@ public class YapixConfig {
         }
         config.yapiUrl = yapiUrl.trim();
         config.yapiProjectToken = yapiProjectToken.trim();
+        config.yapiImportMode = yapiImportMode.trim();
         config.yapiProjectId = yapiProjectId.trim();
         config.rap2ProjectId = rap2ProjectId.trim();
         config.eolinkerProjectId = eolinkerProjectId.trim();
@@ -125,16 +181,49 @@ public class YapixConfig {
         config.parameterIgnoreTypes = splitter.splitToList(parameterIgnoreTypes);
         config.dateTimeFormatMvc = dateTimeFormatMvc;
         config.dateTimeFormatJson = dateTimeFormatJson;
+        if (StringUtils.isNotBlank(parseThreads)) {
+            config.parseThreads = Integer.parseInt(parseThreads.trim());
+        }
+        if (StringUtils.isNotEmpty(incremental)) {
+            config.incremental = Boolean.parseBoolean(incremental.trim());
+        }
+        if (StringUtils.isNotBlank(ledgerVerifyDays)) {
+            config.ledgerVerifyDays = Integer.parseInt(ledgerVerifyDays.trim());
+        }
+        if (StringUtils.isNotEmpty(schemaRef)) {
+            config.schemaRef = Boolean.parseBoolean(schemaRef.trim());
+        }
+        if (StringUtils.isNotBlank(schemaMaxDepth)) {
+            config.schemaMaxDepth = Integer.parseInt(schemaMaxDepth.trim());
+        }
+        if (StringUtils.isNotBlank(schemaMaxNodes)) {
+            config.schemaMaxNodes = Integer.parseInt(schemaMaxNodes.trim());
+        }
 
         // 解析自定义bean配置: beans[xxx].json=xxx
         Gson gson = new Gson();
         Map<String, BeanCustom> beans = Maps.newHashMap();
         config.setBeans(beans);
+        // 解析自定义类型/mock映射: types[xxx]=xxx, mocks[xxx]=xxx
+        Map<String, String> types = Maps.newLinkedHashMap();
+        config.setTypes(types);
+        Map<String, String> mocks = Maps.newLinkedHashMap();
+        config.setMocks(mocks);
         for (String p : properties.stringPropertyNames()) {
             String propertyValue = properties.getProperty(p);
             if (StringUtils.isEmpty(propertyValue)) {
                 continue;
             }
+            Matcher typesMatcher = TYPES_PATTERN.matcher(p);
+            if (typesMatcher.matches()) {
+                types.put(typesMatcher.group(1), propertyValue.trim());
+                continue;
+            }
+            Matcher mocksMatcher = MOCKS_PATTERN.matcher(p);
+            if (mocksMatcher.matches()) {
+                mocks.put(mocksMatcher.group(1), propertyValue.trim());
+                continue;
+            }
             Matcher matcher = BEANS_PATTERN.matcher(p);
             if (!matcher.matches()) {
                 continue;
@@ -165,12 +254,19 @@ public class YapixConfig {
         config.setYapiUrl(settings.getYapiUrl());
         config.setYapiProjectId(settings.getYapiProjectId());
         config.setYapiProjectToken(settings.getYapiProjectToken());
+        config.setYapiImportMode(settings.getYapiImportMode());
         config.setRap2ProjectId(settings.getRap2ProjectId());
         config.setEolinkerProjectId(settings.getEolinkerProjectId());
         config.setShowdocProjectId(settings.getShowdocProjectId());
         config.setReturnWrapType(settings.getReturnWrapType());
         config.setDateTimeFormatMvc(settings.getDateTimeFormatMvc());
         config.setDateTimeFormatJson(settings.getDateTimeFormatJson());
+        config.setParseThreads(settings.getParseThreads() != null ? settings.getParseThreads() : internal.getParseThreads());
+        config.setIncremental(settings.isIncremental());
+        config.setLedgerVerifyDays(settings.getLedgerVerifyDays() != null ? settings.getLedgerVerifyDays() : internal.getLedgerVerifyDays());
+        config.setSchemaRef(settings.isSchemaRef());
+        config.setSchemaMaxDepth(settings.getSchemaMaxDepth() != null ? settings.getSchemaMaxDepth() : internal.getSchemaMaxDepth());
+        config.setSchemaMaxNodes(settings.getSchemaMaxNodes() != null ? settings.getSchemaMaxNodes() : internal.getSchemaMaxNodes());
 
         // 时间格式
         if (StringUtils.isBlank(settings.getDateTimeFormatMvc())) {
@@ -207,6 +303,24 @@ public class YapixConfig {
         }
         config.setBeans(beans);
 
+        // 自定义类型/mock映射
+        Map<String, String> types = Maps.newLinkedHashMap();
+        if (internal.getTypes() != null) {
+            types.putAll(internal.getTypes());
+        }
+        if (settings.getTypes() != null) {
+            types.putAll(settings.getTypes());
+        }
+        config.setTypes(types);
+        Map<String, String> mocks = Maps.newLinkedHashMap();
+        if (internal.getMocks() != null) {
+            mocks.putAll(internal.getMocks());
+        }
+        if (settings.getMocks() != null) {
+            mocks.putAll(settings.getMocks());
+        }
+        config.setMocks(mocks);
+
         // mock规则
         List<MockRule> mockRules = Lists.newArrayList();
         if (settings.getMockRules() != null) {
@@ -254,6 +368,14 @@ public class YapixConfig {
         this.yapiProjectToken = yapiProjectToken;
     }
 
+    public String getYapiImportMode() {
+        return yapiImportMode;
+    }
+
+    public void setYapiImportMode(String yapiImportMode) {
+        this.yapiImportMode = yapiImportMode;
+    }
+
     public String getRap2ProjectId() {
         return rap2ProjectId;
     }
@@ -310,6 +432,22 @@ public class YapixConfig {
         this.mockRules = mockRules;
     }
 
+    public Map<String, String> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<String, String> types) {
+        this.types = types;
+    }
+
+    public Map<String, String> getMocks() {
+        return mocks;
+    }
+
+    public void setMocks(Map<String, String> mocks) {
+        this.mocks = mocks;
+    }
+
     public String getDateTimeFormatMvc() {
         return dateTimeFormatMvc;
     }
@@ -326,6 +464,54 @@ public class YapixConfig {
         this.dateTimeFormatJson = dateTimeFormatJson;
     }
 
+    public Integer getParseThreads() {
+        return parseThreads;
+    }
+
+    public void setParseThreads(Integer parseThreads) {
+        this.parseThreads = parseThreads;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public Integer getLedgerVerifyDays() {
+        return ledgerVerifyDays;
+    }
+
+    public void setLedgerVerifyDays(Integer ledgerVerifyDays) {
+        this.ledgerVerifyDays = ledgerVerifyDays;
+    }
+
+    public boolean isSchemaRef() {
+        return schemaRef;
+    }
+
+    public void setSchemaRef(boolean schemaRef) {
+        this.schemaRef = schemaRef;
+    }
+
+    public Integer getSchemaMaxDepth() {
+        return schemaMaxDepth;
+    }
+
+    public void setSchemaMaxDepth(Integer schemaMaxDepth) {
+        this.schemaMaxDepth = schemaMaxDepth;
+    }
+
+    public Integer getSchemaMaxNodes() {
+        return schemaMaxNodes;
+    }
+
+    public void setSchemaMaxNodes(Integer schemaMaxNodes) {
+        this.schemaMaxNodes = schemaMaxNodes;
+    }
+
     public String getShowdocProjectId() {
         return showdocProjectId;
     }
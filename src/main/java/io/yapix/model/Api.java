@@ -2,6 +2,7 @@ package io.yapix.model;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -61,6 +62,31 @@ public class Api {
     /** 分类 */
     private String category;
 
+    /** 类型定义: 类型名 -> 类型结构, 被属性的ref引用 */
+    private Map<String, Property> definitions;
+
+    /**
+     * 浅复制, 参数/请求体/响应体等子树共享
+     *   用于一个方法映射多个路径: 各路径的接口只有路径/请求方法/分类不同
+     */
+    public Api copy() {
+        Api copy = new Api();
+        copy.path = this.path;
+        copy.method = this.method;
+        copy.summary = this.summary;
+        copy.tags = this.tags;
+        copy.description = this.description;
+        copy.deprecated = this.deprecated;
+        copy.parameters = this.parameters;
+        copy.requestBodyType = this.requestBodyType;
+        copy.requestBody = this.requestBody;
+        copy.requestBodyForm = this.requestBodyForm;
+        copy.responses = this.responses;
+        copy.category = this.category;
+        copy.definitions = this.definitions;
+        return copy;
+    }
+
     public List<Property> getParametersByIn(ParameterIn in) {
         if (parameters == null) {
             return Collections.emptyList();
@@ -150,6 +176,14 @@ public class Api {
         this.category = category;
     }
 
+    public Map<String, Property> getDefinitions() {
+        return definitions;
+    }
+
+    public void setDefinitions(Map<String, Property> definitions) {
+        this.definitions = definitions;
+    }
+
     public List<Property> getRequestBodyForm() {
         return requestBodyForm;
     }
@@ -181,6 +215,7 @@ public class Api {
                 ", requestBodyForm=" + requestBodyForm +
                 ", responses=" + responses +
                 ", category='" + category + '\'' +
+                ", definitions=" + definitions +
                 '}';
     }
 }
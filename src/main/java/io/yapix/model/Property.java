@@ -65,6 +65,9 @@ public class Property {
     /** 当type为object */
     private Map<String, Property> properties;
 
+    /** 当type为object, 引用的类型定义名, 参考 Api.definitions; 引用时不展开properties */
+    private String ref;
+
     public boolean isArrayType() {
         return DataTypes.ARRAY.equals(type);
     }
@@ -125,6 +128,32 @@ public class Property {
         }
     }
 
+    /**
+     * 浅复制, 子树共享
+     *   驻留(共享)的属性不可直接修改, 需复制后再修改
+     */
+    public Property copy() {
+        Property copy = new Property();
+        copy.name = this.name;
+        copy.type = this.type;
+        copy.dateFormat = this.dateFormat;
+        copy.description = this.description;
+        copy.in = this.in;
+        copy.required = this.required;
+        copy.deprecated = this.deprecated;
+        copy.example = this.example;
+        copy.mock = this.mock;
+        copy.defaultValue = this.defaultValue;
+        copy.values = this.values;
+        copy.uniqueItems = this.uniqueItems;
+        copy.minItems = this.minItems;
+        copy.maxItems = this.maxItems;
+        copy.items = this.items;
+        copy.properties = this.properties;
+        copy.ref = this.ref;
+        return copy;
+    }
+
     /**
      * 获取可能的值
      */
@@ -265,4 +294,12 @@ public class Property {
     public void setMaxItems(Integer maxItems) {
         this.maxItems = maxItems;
     }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public void setRef(String ref) {
+        this.ref = ref;
+    }
 }
@@ -15,12 +15,19 @@ import org.jetbrains.kotlin.utils.addToStdlib.firstNotNullResult
  * 组合的Api接口解析器
  *   包含spring + jkmvc的解析器
  */
-class CompositeApiParser(project: Project, module: Module, settings: YapixConfig) : IApiParser {
+class CompositeApiParser(
+    /**
+     * 解析会话, 被所有子解析器共享; 并行解析时也被各线程的解析器共享
+     */
+    val session: ParseSession
+) : IApiParser {
+
+    constructor(project: Project, module: Module, settings: YapixConfig) : this(ParseSession(project, module, settings))
 
     /**
      * 子解析器： spring + jkmvc
      */
-    private val subApiParsers: Array<IApiParser> = arrayOf(SpringApiParser(project, module, settings), JkmvcApiParser(project, module, settings))
+    private val subApiParsers: Array<IApiParser> = arrayOf(SpringApiParser(session), JkmvcApiParser(session))
 
     /**
      * 解析方法
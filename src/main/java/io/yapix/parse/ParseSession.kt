@@ -0,0 +1,88 @@
+package io.yapix.parse
+
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import io.yapix.config.YapixConfig
+import io.yapix.model.Property
+import io.yapix.parse.cache.SchemaCache
+import io.yapix.parse.cache.WellKnownTypes
+import io.yapix.parse.parser.DataTypeParser
+import io.yapix.parse.parser.DateParser
+import io.yapix.parse.parser.MockParser
+import io.yapix.parse.parser.ParseHelper
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * 解析会话
+ *    作用域: 一次解析动作, 被该动作的所有解析器共享(包括并行解析时各线程的解析器)
+ *    持有无状态的解析助手与缓存, 各解析器不再各自创建;
+ *    有状态的解析器(如 KernelParser)仍然每个解析器一个, 不能跨线程共享
+ */
+class ParseSession(
+    val project: Project,
+    val module: Module,
+    val settings: YapixConfig
+) {
+
+    /**
+     * 类型结构缓存
+     */
+    val schemaCache = SchemaCache(project, module, settings)
+
+    /**
+     * 常用类型, 如orm/controller基类
+     *    每次都从模块缓存中获取, psi变化后会重新查找
+     */
+    val wellKnownTypes: WellKnownTypes
+        get() = WellKnownTypes.getInstance(project, module)
+
+    val mockParser = MockParser(project, module, settings)
+
+    val dataTypeParser = DataTypeParser(project, module, settings)
+
+    val dateParser = DateParser(settings)
+
+    val parseHelper = ParseHelper(project, module)
+
+    /**
+     * 类型定义: 类型名 -> 类型结构
+     *    引用模式下每个bean类只解析一次, 参考 YapixConfig.schemaRef
+     */
+    val definitions: MutableMap<String, Property> = ConcurrentHashMap()
+
+    /**
+     * 收集属性引用的类型定义, 包括定义中间接引用的
+     * @param roots 根属性
+     * @return 无引用时返回null
+     */
+    fun collectDefinitions(roots: Collection<Property?>): Map<String, Property>? {
+        if (definitions.isEmpty())
+            return null
+
+        val result = LinkedHashMap<String, Property>()
+        // 子树是共享的, 同一实例只遍历一次
+        val visited = Collections.newSetFromMap(IdentityHashMap<Property, Boolean>())
+        fun collect(property: Property?) {
+            if (property == null || !visited.add(property))
+                return
+
+            val ref = property.ref
+            if (ref != null && !result.containsKey(ref)) {
+                val definition = definitions[ref]
+                if (definition != null) {
+                    result[ref] = definition
+                    collect(definition)
+                }
+            }
+            collect(property.items)
+            property.properties?.values?.forEach { collect(it) }
+        }
+        roots.forEach { collect(it) }
+        return if (result.isEmpty()) null else result
+    }
+
+    override fun toString(): String {
+        return "ParseSession{module=${module.name}, schemaCache=$schemaCache}"
+    }
+}
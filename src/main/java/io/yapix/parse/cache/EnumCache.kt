@@ -0,0 +1,52 @@
+package io.yapix.parse.cache
+
+import com.intellij.openapi.util.Key
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiEnumConstant
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import io.yapix.base.util.JsonUtils
+import io.yapix.model.Value
+import io.yapix.parse.util.doc.PsiDocCommentHelperProxy.getDocCommentTitle
+
+/**
+ * 枚举类的解析结果: 枚举值及其mock
+ *    缓存在枚举类上, psi变化后失效, 被 ParseHelper/MockParser 共享
+ *    枚举值列表是共享的, 调用方不能修改
+ */
+class EnumCache private constructor(psiClass: PsiClass) {
+
+    companion object {
+
+        private val KEY = Key.create<CachedValue<EnumCache>>("io.yapix.EnumCache")
+
+        /**
+         * 获得枚举类的解析结果
+         */
+        @JvmStatic
+        fun getInstance(psiClass: PsiClass): EnumCache {
+            return CachedValuesManager.getManager(psiClass.project).getCachedValue(psiClass, KEY, {
+                CachedValueProvider.Result.create(EnumCache(psiClass), PsiModificationTracker.MODIFICATION_COUNT)
+            }, false)
+        }
+    }
+
+    /**
+     * 枚举值: 常量名 + 常量注释
+     */
+    val values: List<Value> = psiClass.fields.mapNotNull { field ->
+        if (field is PsiEnumConstant)
+            Value(field.name, getDocCommentTitle(field))
+        else
+            null
+    }
+
+    /**
+     * mock: 随机选取一个枚举值
+     */
+    val mock: String by lazy {
+        "@pick(" + JsonUtils.toJson(values.map { it.value }) + ")"
+    }
+}
@@ -0,0 +1,112 @@
+package io.yapix.parse.cache
+
+import io.yapix.model.Property
+import io.yapix.model.Value
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Property驻留器(hash-consing)
+ *    结构相同的属性子树只保留一个实例, 不同的bean/接口共享该实例, 以减少内存
+ *    驻留后的属性不可修改: 需修改时先调用 Property.copy() 复制再修改(写时复制)
+ *    子树先于父节点驻留, 因此比较父节点时, 子节点只需比较引用
+ */
+class PropertyInterner {
+
+    /**
+     * 驻留的属性: <结构key, 唯一实例>
+     */
+    private val properties: MutableMap<PropertyKey, Property> = ConcurrentHashMap()
+
+    /**
+     * 驻留的属性map: <结构key, 唯一实例>
+     */
+    private val propertyMaps: MutableMap<List<Pair<String, Property>>, Map<String, Property>> = ConcurrentHashMap()
+
+    /**
+     * 已驻留的实例, 按引用比较
+     */
+    private val interned: MutableSet<IdentityRef> = ConcurrentHashMap.newKeySet()
+
+    /**
+     * 驻留属性
+     *    传入的属性可能已被缓存共享(如上次解析动作缓存的), 因此不能修改: 子节点被替换时创建新节点
+     */
+    fun intern(property: Property): Property {
+        if (interned.contains(IdentityRef(property)))
+            return property
+
+        val items = property.items?.let { intern(it) }
+        val children = property.properties?.let { intern(it) }
+        var node = property
+        if (items !== property.items || children !== property.properties) {
+            node = property.copy()
+            node.items = items
+            node.properties = children
+        }
+
+        val canonical = properties.computeIfAbsent(PropertyKey(node)) { node }
+        interned.add(IdentityRef(canonical))
+        return canonical
+    }
+
+    /**
+     * 驻留属性map
+     */
+    fun intern(map: Map<String, Property>): Map<String, Property> {
+        if (interned.contains(IdentityRef(map)))
+            return map
+
+        val entries = map.entries.map { it.key to intern(it.value) }
+        val canonical = propertyMaps.computeIfAbsent(entries) { entries.toMap(LinkedHashMap()) }
+        interned.add(IdentityRef(canonical))
+        return canonical
+    }
+
+    /**
+     * 已驻留的属性数
+     */
+    val size: Int
+        get() = properties.size
+}
+
+/**
+ * 属性的结构key
+ *    标量字段按值比较, 子节点(已驻留)按引用比较
+ */
+private data class PropertyKey(
+    val name: String?,
+    val type: String?,
+    val dateFormat: String?,
+    val description: String?,
+    val `in`: Any?,
+    val required: Boolean?,
+    val deprecated: Boolean?,
+    val example: String?,
+    val mock: String?,
+    val defaultValue: String?,
+    val values: List<Pair<String?, String?>>?,
+    val items: Property?,
+    val uniqueItems: Boolean?,
+    val minItems: Int?,
+    val maxItems: Int?,
+    val properties: IdentityRef?,
+    val ref: String?
+) {
+    constructor(p: Property) : this(p.name, p.type, p.dateFormat, p.description, p.getIn(), p.required, p.deprecated,
+        p.example, p.mock, p.defaultValue, p.values?.map { v: Value -> v.value to v.description }, p.items,
+        p.uniqueItems, p.minItems, p.maxItems, p.properties?.let { IdentityRef(it) }, p.ref)
+}
+
+/**
+ * 按引用比较的包装: LinkedHashMap的equals是按内容比较的, 驻留后只需比较引用
+ */
+private class IdentityRef(val ref: Any) {
+
+    override fun equals(other: Any?): Boolean {
+        return other is IdentityRef && other.ref === ref
+    }
+
+    override fun hashCode(): Int {
+        return System.identityHashCode(ref)
+    }
+}
@@ -0,0 +1,105 @@
+package io.yapix.parse.cache
+
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiFile
+import io.yapix.config.YapixConfig
+import io.yapix.model.Property
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * 类型结构缓存
+ *    作用域: 一次解析动作, 由 ParseSession 持有, 被所有KernelParser共享
+ *    key: 类 + 泛型 + 请求/响应
+ *    value: bean类解析出来的属性
+ *    实际存储在项目级别的 SchemaCacheService 中, 以便跨解析动作复用; 本类负责统计命中率
+ *    缓存的属性都是驻留(共享)的, 调用方不能直接修改, 需先复制, 参考 PropertyInterner
+ */
+class SchemaCache(project: Project, private val module: Module, settings: YapixConfig) {
+
+    /**
+     * 项目级别的缓存
+     */
+    private val service = SchemaCacheService.getInstance(project)
+
+    init {
+        service.checkConfig(settings)
+    }
+
+    /**
+     * 属性驻留器
+     */
+    private val interner = PropertyInterner()
+
+    /**
+     * 命中次数
+     */
+    val hits = AtomicInteger()
+
+    /**
+     * 未命中次数
+     */
+    val misses = AtomicInteger()
+
+    /**
+     * 获取缓存的bean属性
+     */
+    fun get(key: SchemaKey): SchemaEntry? {
+        val entry = key.toCacheKey(module)?.let { service.get(it) }
+        if (entry == null) {
+            misses.incrementAndGet()
+            return null
+        }
+
+        hits.incrementAndGet()
+        return entry
+    }
+
+    /**
+     * 缓存bean属性
+     * @param key 类型key
+     * @param properties 已驻留的bean属性
+     * @param dependencies 依赖的类文件
+     * @param nodes 子树的节点数
+     * @param depth 子树中嵌套bean的深度
+     */
+    fun put(key: SchemaKey, properties: Map<String, Property>, dependencies: Set<PsiFile>, nodes: Int, depth: Int) {
+        val cacheKey = key.toCacheKey(module) ?: return // 匿名类等无全限定名的类不缓存
+        service.put(cacheKey, SchemaEntry(properties, dependencies, nodes, depth))
+    }
+
+    /**
+     * 驻留bean属性, 结构相同的子树共享同一实例
+     */
+    fun intern(properties: Map<String, Property>): Map<String, Property> {
+        return interner.intern(properties)
+    }
+
+    override fun toString(): String {
+        return "SchemaCache{hits=$hits, misses=$misses, interned=${interner.size}}"
+    }
+}
+
+/**
+ * 类型结构缓存的key
+ * @param psiClass 类
+ * @param type 类型名
+ * @param genericTypes 泛型
+ * @param isResponse 是否响应
+ */
+data class SchemaKey(
+    val psiClass: PsiClass,
+    val type: String,
+    val genericTypes: String?,
+    val isResponse: Boolean
+) {
+
+    /**
+     * 转为项目级别缓存的key: 类对象在文件重新解析后会变化, 因此使用全限定名
+     */
+    fun toCacheKey(module: Module): String? {
+        val qualifiedName = psiClass.qualifiedName ?: return null
+        return "${module.name}|$qualifiedName|$type|$genericTypes|${if (isResponse) "response" else "request"}"
+    }
+}
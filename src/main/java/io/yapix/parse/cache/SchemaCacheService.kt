@@ -0,0 +1,113 @@
+package io.yapix.parse.cache
+
+import com.google.gson.Gson
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootModificationTracker
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import io.yapix.config.YapixConfig
+import io.yapix.model.Property
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * 项目级别的类型结构缓存
+ *    作用域: 项目, 跨多次解析动作
+ *    key: 模块 + 类全限定名 + 泛型 + 请求/响应
+ *    value: bean类解析出来的属性, 以 CachedValue 形式保存, 依赖于解析过程中涉及的类文件(包括嵌套的bean/枚举/父类),
+ *           任一文件修改后该项即失效, 而其他类的缓存不受影响
+ *    .yapix配置变化(影响mock/日期/bean自定义)时整体清空
+ */
+class SchemaCacheService(private val project: Project) {
+
+    companion object {
+
+        private val gson = Gson()
+
+        @JvmStatic
+        fun getInstance(project: Project): SchemaCacheService {
+            return ServiceManager.getService(project, SchemaCacheService::class.java)
+        }
+    }
+
+    /**
+     * 缓存: <类型key, 缓存项>
+     */
+    private val cache: MutableMap<String, CachedValue<SchemaEntry>> = ConcurrentHashMap()
+
+    /**
+     * 上次解析所用配置的指纹
+     */
+    @Volatile
+    private var configFingerprint: Int? = null
+
+    /**
+     * 检查配置是否变化, 变化则清空缓存
+     */
+    @Synchronized
+    fun checkConfig(settings: YapixConfig) {
+        val fingerprint = fingerprint(settings)
+        if (fingerprint != configFingerprint) {
+            cache.clear()
+            configFingerprint = fingerprint
+        }
+    }
+
+    /**
+     * 配置指纹: 只取影响类型解析结果的配置
+     *    包括bean自定义, mock规则, 日期格式, 类型/mock映射, 类型结构的展开限制
+     */
+    private fun fingerprint(settings: YapixConfig): Int {
+        val mockRules = settings.mockRules?.map { listOf(it.type, it.match, it.mock) }
+        val subset = listOf(settings.beans, mockRules, settings.dateTimeFormatMvc, settings.dateTimeFormatJson,
+            settings.types?.toSortedMap(), settings.mocks?.toSortedMap(),
+            settings.isSchemaRef, settings.schemaMaxDepth, settings.schemaMaxNodes)
+        return gson.toJson(subset).hashCode()
+    }
+
+    /**
+     * 获取未失效的缓存项
+     */
+    fun get(key: String): SchemaEntry? {
+        return cache[key]?.upToDateOrNull?.get()
+    }
+
+    /**
+     * 缓存bean属性
+     * @param key 类型key
+     * @param entry 缓存项, 其依赖文件决定何时失效
+     */
+    fun put(key: String, entry: SchemaEntry) {
+        val dependencies = entry.dependencies.toMutableList<Any>()
+        dependencies.add(ProjectRootModificationTracker.getInstance(project))
+        val value = CachedValuesManager.getManager(project).createCachedValue({
+            CachedValueProvider.Result.create(entry, dependencies)
+        }, false)
+        // 立即计算, 以记录依赖文件当前的修改戳
+        value.value
+        cache[key] = value
+    }
+
+    /**
+     * 清空缓存
+     */
+    fun clear() {
+        cache.clear()
+    }
+}
+
+/**
+ * 缓存项
+ * @param properties bean属性
+ * @param dependencies 依赖的类文件
+ * @param nodes 子树的节点数, 用于命中时计入节点数限制
+ * @param depth 子树中嵌套bean的深度(不含本bean), 用于命中时检查深度限制
+ */
+class SchemaEntry(
+    val properties: Map<String, Property>,
+    val dependencies: Set<PsiFile>,
+    val nodes: Int,
+    val depth: Int
+)
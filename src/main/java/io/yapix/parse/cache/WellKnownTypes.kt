@@ -0,0 +1,142 @@
+package io.yapix.parse.cache
+
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootModificationTracker
+import com.intellij.openapi.util.Key
+import com.intellij.openapi.util.UserDataHolder
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiClassType
+import com.intellij.psi.PsiType
+import com.intellij.psi.util.*
+import io.yapix.parse.constant.JavaConstants
+import io.yapix.parse.util.PsiUtils
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * 常用类型注册表
+ *    作用域: 模块, 缓存在模块上, psi或依赖库变化后失效
+ *    预先查找常用的类(Collection/Map/Orm/Controller), 并缓存每个类的分类结果,
+ *    判断字段类型时只需查表, 无需每次都查找类及构建类型
+ */
+class WellKnownTypes private constructor(project: Project, module: Module?) {
+
+    companion object {
+
+        /**
+         * orm基类
+         */
+        const val ORM = "net.jkcode.jkmvc.orm.Orm"
+
+        /**
+         * jkmvc controller基类
+         */
+        const val CONTROLLER = "net.jkcode.jkmvc.http.controller.Controller"
+
+        private val KEY = Key.create<CachedValue<WellKnownTypes>>("io.yapix.WellKnownTypes")
+
+        /**
+         * 获得模块的注册表, 无模块时获得项目的注册表
+         */
+        @JvmStatic
+        fun getInstance(project: Project, module: Module?): WellKnownTypes {
+            val holder: UserDataHolder = module ?: project
+            return CachedValuesManager.getManager(project).getCachedValue(holder, KEY, {
+                CachedValueProvider.Result.create(WellKnownTypes(project, module),
+                    PsiModificationTracker.MODIFICATION_COUNT, ProjectRootModificationTracker.getInstance(project))
+            }, false)
+        }
+    }
+
+    private val collectionClass: PsiClass? = PsiUtils.findPsiClass(project, module, JavaConstants.Collection)
+
+    private val mapClass: PsiClass? = PsiUtils.findPsiClass(project, module, JavaConstants.Map)
+
+    private val ormClass: PsiClass? = PsiUtils.findPsiClass(project, module, ORM)
+
+    private val controllerClass: PsiClass? = PsiUtils.findPsiClass(project, module, CONTROLLER)
+
+    private val collectionType: PsiClassType? = collectionClass?.let { PsiTypesUtil.getClassType(it) }
+
+    private val mapType: PsiClassType? = mapClass?.let { PsiTypesUtil.getClassType(it) }
+
+    /**
+     * 类的分类结果
+     */
+    private val kinds: MutableMap<PsiClass, ClassKind> = ConcurrentHashMap()
+
+    /**
+     * 是否是集合类型或其子类型
+     */
+    fun isCollection(type: PsiType): Boolean {
+        if (type is PsiClassType)
+            return getKind(type)?.isCollection == true
+        return collectionType != null && collectionType.isAssignableFrom(type)
+    }
+
+    /**
+     * 是否是Map，以及其子类型
+     */
+    fun isMap(type: PsiType): Boolean {
+        if (type is PsiClassType)
+            return getKind(type)?.isMap == true
+        return mapType != null && mapType.isAssignableFrom(type)
+    }
+
+    /**
+     * 是否继承orm基类
+     */
+    fun isOrm(psiClass: PsiClass): Boolean {
+        return getKind(psiClass).isOrm
+    }
+
+    /**
+     * 是否继承jkmvc controller基类
+     */
+    fun isController(psiClass: PsiClass): Boolean {
+        return getKind(psiClass).isController
+    }
+
+    /**
+     * 获得类型的分类, 无法解析的类型返回null
+     */
+    private fun getKind(type: PsiClassType): ClassKind? {
+        return type.resolve()?.let { getKind(it) }
+    }
+
+    /**
+     * 获得类的分类
+     */
+    private fun getKind(psiClass: PsiClass): ClassKind {
+        return kinds.computeIfAbsent(psiClass) {
+            ClassKind(
+                isInheritor(psiClass, collectionClass, true),
+                isInheritor(psiClass, mapClass, true),
+                isInheritor(psiClass, ormClass, false),
+                isInheritor(psiClass, controllerClass, false)
+            )
+        }
+    }
+
+    /**
+     * 是否是基类的子类
+     * @param orSelf 是否包含基类本身
+     */
+    private fun isInheritor(psiClass: PsiClass, baseClass: PsiClass?, orSelf: Boolean): Boolean {
+        if (baseClass == null)
+            return false
+        if (orSelf)
+            return InheritanceUtil.isInheritorOrSelf(psiClass, baseClass, true)
+        return psiClass.isInheritor(baseClass, true)
+    }
+
+    /**
+     * 类的分类
+     */
+    private data class ClassKind(
+        val isCollection: Boolean,
+        val isMap: Boolean,
+        val isOrm: Boolean,
+        val isController: Boolean
+    )
+}
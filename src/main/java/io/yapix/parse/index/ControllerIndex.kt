@@ -0,0 +1,212 @@
+package io.yapix.parse.index
+
+import com.intellij.ide.highlighter.JavaFileType
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.JavaPsiFacade
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiJavaFile
+import com.intellij.psi.PsiModifier
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.search.GlobalSearchScopesCore
+import com.intellij.util.indexing.*
+import com.intellij.util.io.DataExternalizer
+import com.intellij.util.io.DataInputOutputUtil
+import com.intellij.util.io.EnumeratorStringDescriptor
+import com.intellij.util.io.IOUtil
+import com.intellij.util.io.KeyDescriptor
+import org.jetbrains.kotlin.idea.KotlinFileType
+import org.jetbrains.kotlin.lexer.KtTokens
+import org.jetbrains.kotlin.psi.KtClass
+import org.jetbrains.kotlin.psi.KtFile
+import java.io.DataInput
+import java.io.DataOutput
+
+/**
+ * controller类的文件索引
+ *    key: controller类型, 参考 KIND_SPRING / KIND_JKMVC
+ *    value: 文件中的controller类
+ *    索引时只看语法(注解短名/父类短名/类名), 不做类型解析, 因此只是候选类, 最终由 IApiParser 判断
+ */
+class ControllerIndex : FileBasedIndexExtension<String, List<ControllerStub>>() {
+
+    companion object {
+
+        @JvmField
+        val NAME: ID<String, List<ControllerStub>> = ID.create("io.yapix.ControllerIndex")
+
+        /**
+         * spring controller: 有@Controller/@RestController注解
+         */
+        const val KIND_SPRING = "spring"
+
+        /**
+         * jkmvc controller: 类名或父类名以Controller结尾
+         */
+        const val KIND_JKMVC = "jkmvc"
+
+        private const val CONTROLLER_SUFFIX = "Controller"
+
+        private val SPRING_CONTROLLER_ANNOTATIONS = setOf("Controller", "RestController")
+
+        /**
+         * 从索引中查找选中文件(包括目录下的文件)中的controller类
+         *    需在读操作中调用
+         *    按文件路径及类在文件中的位置排序, 与遍历选中文件的顺序一致
+         * @param project 项目
+         * @param selectedFiles 选中的文件或目录
+         */
+        @JvmStatic
+        fun findControllers(project: Project, selectedFiles: Array<VirtualFile>): List<PsiClass> {
+            val scope = createScope(project, selectedFiles)
+            val index = FileBasedIndex.getInstance()
+            val facade = JavaPsiFacade.getInstance(project)
+            val result = LinkedHashSet<PsiClass>()
+            for (kind in arrayOf(KIND_SPRING, KIND_JKMVC)) {
+                index.processValues(NAME, kind, null, { _, stubs ->
+                    for (stub in stubs) {
+                        val psiClass = facade.findClass(stub.className, scope)
+                        if (psiClass != null && !psiClass.isInterface)
+                            result.add(psiClass)
+                    }
+                    true
+                }, scope)
+            }
+            return result.sortedWith(compareBy<PsiClass>({ it.containingFile?.virtualFile?.path }, { it.textOffset }))
+        }
+
+        /**
+         * 选中文件的范围: 目录递归
+         */
+        private fun createScope(project: Project, selectedFiles: Array<VirtualFile>): GlobalSearchScope {
+            val dirs = selectedFiles.filter { it.isDirectory }
+            val files = selectedFiles.filter { !it.isDirectory }
+            var scope = GlobalSearchScope.filesScope(project, files)
+            if (dirs.isNotEmpty())
+                scope = scope.union(GlobalSearchScopesCore.directoriesScope(project, true, *dirs.toTypedArray()))
+            return scope
+        }
+    }
+
+    override fun getName(): ID<String, List<ControllerStub>> {
+        return NAME
+    }
+
+    override fun getIndexer(): DataIndexer<String, List<ControllerStub>, FileContent> {
+        return DataIndexer { inputData ->
+            when (val file = inputData.psiFile) {
+                is PsiJavaFile -> indexJavaFile(file)
+                is KtFile -> indexKotlinFile(file)
+                else -> emptyMap()
+            }
+        }
+    }
+
+    /**
+     * 索引java文件
+     */
+    private fun indexJavaFile(file: PsiJavaFile): Map<String, List<ControllerStub>> {
+        val stubs = HashMap<String, MutableList<ControllerStub>>()
+        for (psiClass in file.classes) {
+            val modifiers = psiClass.modifierList
+            // 接口不是controller, 如feign客户端, 与原来按文件查找类时一致
+            if (psiClass.isInterface || modifiers == null || !modifiers.hasModifierProperty(PsiModifier.PUBLIC))
+                continue
+
+            val qualifiedName = psiClass.qualifiedName ?: continue
+
+            val isSpring = modifiers.annotations.any { it.nameReferenceElement?.referenceName in SPRING_CONTROLLER_ANNOTATIONS }
+            if (isSpring) {
+                stubs.getOrPut(KIND_SPRING) { ArrayList() }.add(ControllerStub(qualifiedName))
+                continue
+            }
+
+            val superNames = psiClass.extendsList?.referenceElements?.mapNotNull { it.referenceName }.orEmpty()
+            if (isJkmvcController(psiClass.name, superNames))
+                stubs.getOrPut(KIND_JKMVC) { ArrayList() }.add(ControllerStub(qualifiedName))
+        }
+        return stubs
+    }
+
+    /**
+     * 索引kotlin文件
+     */
+    private fun indexKotlinFile(file: KtFile): Map<String, List<ControllerStub>> {
+        val stubs = HashMap<String, MutableList<ControllerStub>>()
+        for (ktClass in file.declarations.filterIsInstance<KtClass>()) {
+            if (ktClass.isInterface() || ktClass.hasModifier(KtTokens.PRIVATE_KEYWORD) || ktClass.hasModifier(KtTokens.INTERNAL_KEYWORD))
+                continue
+
+            val qualifiedName = ktClass.fqName?.asString() ?: continue
+
+            val isSpring = ktClass.annotationEntries.any { it.shortName?.asString() in SPRING_CONTROLLER_ANNOTATIONS }
+            if (isSpring) {
+                stubs.getOrPut(KIND_SPRING) { ArrayList() }.add(ControllerStub(qualifiedName))
+                continue
+            }
+
+            val superNames = ktClass.superTypeListEntries.mapNotNull { it.typeReference?.text?.substringBefore('<') }
+            if (isJkmvcController(ktClass.name, superNames))
+                stubs.getOrPut(KIND_JKMVC) { ArrayList() }.add(ControllerStub(qualifiedName))
+        }
+        return stubs
+    }
+
+    /**
+     * 是否jkmvc controller候选类: 类名或父类名以Controller结尾
+     */
+    private fun isJkmvcController(className: String?, superNames: List<String>): Boolean {
+        return className?.endsWith(CONTROLLER_SUFFIX) == true
+            || superNames.any { it.substringAfterLast('.').endsWith(CONTROLLER_SUFFIX) }
+    }
+
+    override fun getKeyDescriptor(): KeyDescriptor<String> {
+        return EnumeratorStringDescriptor.INSTANCE
+    }
+
+    override fun getValueExternalizer(): DataExternalizer<List<ControllerStub>> {
+        return ControllerStubListExternalizer
+    }
+
+    override fun getVersion(): Int {
+        return 3
+    }
+
+    override fun getInputFilter(): FileBasedIndex.InputFilter {
+        return DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE, KotlinFileType.INSTANCE)
+    }
+
+    override fun dependsOnFileContent(): Boolean {
+        return true
+    }
+}
+
+/**
+ * 索引中的controller类
+ * @param className 类全限定名
+ */
+data class ControllerStub(
+    val className: String
+)
+
+/**
+ * controller类列表的序列化
+ */
+object ControllerStubListExternalizer : DataExternalizer<List<ControllerStub>> {
+
+    override fun save(out: DataOutput, value: List<ControllerStub>) {
+        DataInputOutputUtil.writeINT(out, value.size)
+        for (stub in value) {
+            IOUtil.writeUTF(out, stub.className)
+        }
+    }
+
+    override fun read(input: DataInput): List<ControllerStub> {
+        val size = DataInputOutputUtil.readINT(input)
+        val stubs = ArrayList<ControllerStub>(size)
+        repeat(size) {
+            stubs.add(ControllerStub(IOUtil.readUTF(input)))
+        }
+        return stubs
+    }
+}
@@ -5,9 +5,9 @@ import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiMethod
-import io.yapix.config.YapixConfig
 import io.yapix.model.Api
 import io.yapix.parse.IApiParser
+import io.yapix.parse.ParseSession
 import io.yapix.parse.constant.DocumentTags
 import io.yapix.parse.model.ClassParseData
 import io.yapix.parse.model.ControllerApiInfo
@@ -19,7 +19,11 @@ import org.slf4j.LoggerFactory
 /**
  * Api接口解析器基类
  */
-abstract class AbstractApiParser(protected val project: Project, protected val module: Module, settings: YapixConfig) : IApiParser {
+abstract class AbstractApiParser(protected val session: ParseSession) : IApiParser {
+
+    protected val project: Project = session.project
+
+    protected val module: Module = session.module
 
     // 请求解析器
     protected abstract val requestParser: IRequestParser
@@ -28,7 +32,7 @@ abstract class AbstractApiParser(protected val project: Project, protected val m
     protected abstract val responseParser: ResponseParser
 
     // 解析助手
-    protected val parseHelper: ParseHelper = ParseHelper(project, module)
+    protected val parseHelper: ParseHelper = session.parseHelper
 
     companion object{
 
@@ -100,6 +104,9 @@ abstract class AbstractApiParser(protected val project: Project, protected val m
         // 响应信息
         val response = responseParser.parse(method)
         api.responses = response
+        // 引用的类型定义
+        if (session.settings.isSchemaRef)
+            api.definitions = session.collectDefinitions(listOf(api.requestBody, api.responses) + api.parameters.orEmpty() + api.requestBodyForm.orEmpty())
         logger.debug("解析方法[{}.{}()]成为api: {}", method.containingClass?.name, method.name, api)
         return api
     }
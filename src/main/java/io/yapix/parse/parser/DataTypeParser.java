@@ -5,9 +5,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiType;
 import io.yapix.config.YapixConfig;
 import io.yapix.model.DataTypes;
-import io.yapix.parse.util.PropertiesLoader;
 import io.yapix.parse.util.PsiTypeUtils;
-import java.util.Properties;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -19,18 +17,20 @@ public final class DataTypeParser {
     private final Project project;
     private final Module module;
     private final YapixConfig settings;
+    private final TypeMappingTable typeTable;
 
     public DataTypeParser(Project project, Module module, YapixConfig settings) {
         this.project = project;
         this.module = module;
         this.settings = settings;
+        this.typeTable = TypeMappingTable.compile(FILE, settings.getTypes());
     }
 
     /**
      * 获取字段类型
      *    1 数组、集合 -> array
      *    2 枚举 -> string
-     *    3 其他：根据配置文件 types.properties 中的类型映射，来获得目标类型
+     *    3 其他：根据配置文件 types.properties 及 .yapix 中 types[xxx] 的类型映射，来获得目标类型
      */
     public String parseType(PsiType type) {
         // 数组类型处理
@@ -46,14 +46,20 @@ public final class DataTypeParser {
     }
 
     /**
-     * 根据配置文件 types.properties 中的类型映射，来获得目标类型
+     * 根据类型映射表，来获得目标类型
      *   如 byte=integer / short=integer
      * @param type
      * @return
      */
-    public static String getTypeInProperties(PsiType type) {
-        Properties typeProperties = PropertiesLoader.getProperties(FILE);
-        return typeProperties.getProperty(type.getCanonicalText());
+    public String getTypeInProperties(PsiType type) {
+        return typeTable.get(type);
+    }
+
+    /**
+     * 是否是文件上传, 包括文件数组/集合
+     */
+    public boolean isFileIncludeArray(PsiType type) {
+        return DataTypes.FILE.equals(typeTable.get(type));
     }
 
 }
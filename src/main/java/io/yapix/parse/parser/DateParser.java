@@ -1,6 +1,6 @@
 package io.yapix.parse.parser;
 
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableSet;
 import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiParameter;
 import com.intellij.psi.PsiType;
@@ -16,6 +16,15 @@ import java.util.Set;
  */
 public class DateParser {
 
+    /**
+     * 时间类型
+     */
+    private static final Set<String> DATE_TYPES = ImmutableSet.of(
+            "java.util.Date",
+            "java.sql.Date", "java.sql.Timestamp",
+            "java.time.LocalDate", "java.time.LocalDateTime", "java.time.LocalTime"
+    );
+
     private final YapixConfig settings;
 
     public DateParser(YapixConfig settings) {
@@ -88,12 +97,7 @@ public class DateParser {
     }
 
     public static boolean isDateType(PsiType type) {
-        Set<String> dateTypes = Sets.newHashSet(
-                "java.util.Date",
-                "java.sql.Date", "java.sql.Timestamp",
-                "java.time.LocalDate", "java.time.LocalDateTime", "java.time.LocalTime"
-        );
-        return dateTypes.contains(type.getCanonicalText());
+        return DATE_TYPES.contains(type.getCanonicalText());
     }
 
 }
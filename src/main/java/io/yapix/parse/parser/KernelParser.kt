@@ -5,13 +5,19 @@ import com.google.common.collect.Sets
 import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
 import com.intellij.psi.*
-import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.InheritanceUtil
 import com.intellij.psi.util.PsiTypesUtil
+import com.intellij.psi.util.PsiUtil
+import com.intellij.psi.util.TypeConversionUtil
 import io.yapix.base.util.NotificationUtils
 import io.yapix.config.BeanCustom
 import io.yapix.config.YapixConfig
 import io.yapix.model.DataTypes
 import io.yapix.model.Property
+import io.yapix.parse.ParseSession
+import io.yapix.parse.cache.SchemaCache
+import io.yapix.parse.cache.SchemaEntry
+import io.yapix.parse.cache.SchemaKey
 import io.yapix.parse.constant.DocumentTags
 import io.yapix.parse.constant.JavaConstants
 import io.yapix.parse.util.*
@@ -22,15 +28,48 @@ import java.util.*
 /**
  * 解析一个完整的类型
  */
-class KernelParser(private val project: Project, private val module: Module, private val settings: YapixConfig, protected val isResponse: Boolean) {
+class KernelParser(private val session: ParseSession, protected val isResponse: Boolean) {
 
-    protected val mockParser: MockParser = MockParser(project, module, settings)
+    private val project: Project = session.project
 
-    protected val dataTypeParser: DataTypeParser = DataTypeParser(project, module, settings)
+    private val module: Module = session.module
 
-    protected val dateParser: DateParser = DateParser(settings)
+    private val settings: YapixConfig = session.settings
 
-    protected val parseHelper: ParseHelper = ParseHelper(project, module)
+    private val schemaCache: SchemaCache = session.schemaCache
+
+    protected val mockParser: MockParser = session.mockParser
+
+    protected val dataTypeParser: DataTypeParser = session.dataTypeParser
+
+    protected val dateParser: DateParser = session.dateParser
+
+    protected val parseHelper: ParseHelper = session.parseHelper
+
+    /**
+     * 循环引用或超出限制被截断的次数, 用于判断解析结果是否依赖于调用链
+     */
+    private var cycleCuts = 0
+
+    /**
+     * 正在解析的bean类(调用链), 防止循环引用; 其大小即为bean的嵌套深度
+     */
+    private val chains = VisitStack()
+
+    /**
+     * 当前类型已解析的节点数, 参考 YapixConfig.schemaMaxNodes
+     */
+    private var nodeCount = 0
+
+    /**
+     * 已检查过的最深的调用链大小, 用于计算缓存子树的嵌套深度
+     */
+    private var deepest = 0
+
+    /**
+     * 正在解析的bean类所依赖的类文件, 栈顶为当前bean类
+     */
+    private val dependencyStack: Deque<MutableSet<PsiFile>> = java.util.ArrayDeque()
 
     /**
      * 解析类型
@@ -44,65 +83,94 @@ class KernelParser(private val project: Project, private val module: Module, pri
      *   集合：解析泛型为Property.items
      *   对象:解析属性为Property.properties
      * @param psiType
-     * @param canonicalType
      * @param srcMethod 来源的方法，要先排除该方法的类
      * @return
      */
-    fun parseType(psiType: PsiType?, canonicalType: String?, srcMethod: PsiMethod): Property? {
-        return doParseType(psiType, canonicalType!!, mutableSetOf(srcMethod.containingClass!!))
+    fun parseType(psiType: PsiType?, srcMethod: PsiMethod): Property? {
+        resetChains(srcMethod.containingClass!!)
+        return doParseType(psiType)
     }
 
     /**
-     * 解析类型
-     * 1 一级解析: dataTypeParser.parseType(psiType)
-     *   数组、集合 -> array
-     *   枚举 -> string
-     *   其他：根据配置文件 types.properties 中的类型映射，来获得目标类型
-     * 2 二级解析
-     *   Map类型：解析泛型为Property.properties
-     *   数组：解析泛型为Property.items
-     *   集合：解析泛型为Property.items
-     *   对象:解析属性为Property.properties
-     * @param psiType
-     * @param canonicalType
-     * @param chains 防止重复解析
+     * 解析文本声明的类型, 如jkmvc注释中的类型
+     *    文本只在入口处解析一次为PsiType, 类名按来源方法所在类的import来修复全路径
+     * @param canonicalType 类型文本, 如 List<User>
+     * @param srcMethod 来源的方法，要先排除该方法的类
      * @return
      */
-    private fun doParseType(psiType: PsiType?, canonicalType: String, chains: Set<PsiClass>): Property? {
-        var psiType = psiType
+    fun parseType(canonicalType: String?, srcMethod: PsiMethod): Property? {
+        if (StringUtils.isEmpty(canonicalType))
+            return newProperty()
+
+        // string类简写处理: 虽然string不属于原始类型，但很常用，支持简写, 参考 types.properties
+        val type = canonicalType!!.substringBefore('<').trim()
+        val strTypes = "string|date"
+        if (strTypes.contains(type.toLowerCase())) {
+            val item = newProperty()
+            item.type = "string"
+            return item
+        }
+
+        val srcClass = srcMethod.containingClass!!
+        resetChains(srcClass)
+        return doParseType(PsiLinkUtils.getLinkType(srcClass, canonicalType))
+    }
+
+    /**
+     * 开始解析新的类型: 调用链只有来源类
+     *    上次解析异常中断时, 调用链可能未出栈, 因此每次都要清空
+     */
+    private fun resetChains(srcClass: PsiClass) {
+        chains.clear()
+        chains.push(srcClass)
+        nodeCount = 0
+        deepest = 0
+    }
+
+    /**
+     * 创建属性, 默认类型object
+     */
+    private fun newProperty(): Property {
         val item = Property()
         item.required = false
         item.type = DataTypes.OBJECT //默认类型object
-        if (StringUtils.isEmpty(canonicalType))
-            return item
+        return item
+    }
 
-        // 泛型分割处理
-        val types = PsiGenericUtils.splitTypeAndGenericPair(canonicalType)
-        var type = types[0] //类型
-        val genericTypes = types[1] //泛型
-        if (PsiTypeUtils.isVoid(type))
-            return null
+    /**
+     * 解析类型
+     *    泛型参数已替换在 psiType 中(如 Page<User> 的字段 List<T> 为 List<User>), 因此无需再按类名查找类
+     * @param psiType
+     * @return
+     */
+    private fun doParseType(psiType: PsiType?): Property? {
+        nodeCount++
+        val item = newProperty()
+        // 通配符取上界: List<? extends User> -> User
+        val psiType = when (psiType) {
+            null -> return item
+            is PsiWildcardType -> psiType.extendsBound
+            is PsiCapturedWildcardType -> psiType.upperBound
+            else -> psiType
+        }
 
         // 先过滤原始类型，以便减少查找其他类型，优化性能
-        val primitiveType = PsiTypeUtils.getPrimitiveType(type)
-        if(primitiveType != null){
-            item.type = dataTypeParser.parseType(primitiveType)
-            return item
-        }
-        // string类简写处理: 虽然string不属于原始类型，但很常用，支持简写, 参考 types.properties
-        val strTypes = "string|date"
-        if(strTypes.contains(type.toLowerCase())){
-            item.type = "string"
+        if (psiType is PsiPrimitiveType) {
+            if (PsiType.VOID == psiType)
+                return null
+            item.type = dataTypeParser.parseType(psiType)
             return item
         }
 
-        // 获得非原始类型的PsiClass
-        // val psiClass = PsiUtils.findPsiClass(project, module, type)
-        val psiClass = PsiLinkUtils.getLinkClass(chains.last() /*发起调用的类*/, type)
-        if (psiClass != null)
-            psiType = PsiTypesUtil.getClassType(psiClass)
-        if (psiType == null)
+        val psiClass = (psiType as? PsiClassType)?.resolve()
+        // 未确定的泛型变量, 按Object处理
+        if (psiClass is PsiTypeParameter)
             return item
+        val type = psiClass?.qualifiedName
+        if (type != null && PsiTypeUtils.isVoid(type))
+            return null
+        if (psiClass != null)
+            dependencyStack.peek()?.let { addClassDependencies(psiClass, it) }
 
         /**
          * 获取字段类型
@@ -119,85 +187,180 @@ class KernelParser(private val project: Project, private val module: Module, pri
         // Map类型：解析泛型为Property.properties
         if (PsiTypeUtils.isMap(psiType, project, module) || JavaConstants.Object == type) {
             item.type = DataTypes.OBJECT
-            doHandleMap(item, genericTypes, chains)
+            doHandleMap(item, psiType)
             return item
         }
 
         // 数组：解析泛型为Property.items
-        if (PsiTypeUtils.isArray(psiType)) {
-            val arrayType = psiType as PsiArrayType
-            val componentType = arrayType.componentType
-            val items = doParseType(componentType, componentType.canonicalText, chains)
-            item.items = items
+        if (psiType is PsiArrayType) {
+            item.items = doParseType(psiType.componentType)
         }
 
         // 集合：解析泛型为Property.items
         if (PsiTypeUtils.isCollection(psiType, project, module)) {
             // 递归调用
-            val items = doParseType(null, genericTypes, chains)
-            item.items = items
+            item.items = doParseType(PsiUtil.extractIterableTypeParameter(psiType, false))
         }
 
         // 对象:解析属性为Property.properties
-        val isNeedParseObject = (psiClass != null && item.isObjectType
-            && (chains == null || !chains.contains(psiClass))) // 防止重复解析
-        if (isNeedParseObject) {
-            // 递归调用
-            val properties = doParseBean(type, genericTypes, psiClass!!, chains)
-            item.properties = properties
-        }
+        if (psiClass != null && item.isObjectType)
+            doParseObject(item, psiType as PsiClassType, psiClass)
         return item
     }
 
     /**
-     * 处理Map类型
+     * 对象:解析属性为Property.properties
+     *    引用模式下, 嵌套的bean只引用类型定义, 循环引用也只是引用, 无需截断
+     * @param item 对象属性
+     * @param psiType 类型, 包含泛型参数
+     * @param psiClass 类型的PsiClass
      */
-    private fun doHandleMap(item: Property, genericTypes: String?, chains: Set<PsiClass>) {
-        if (StringUtils.isEmpty(genericTypes))
+    private fun doParseObject(item: Property, psiType: PsiClassType, psiClass: PsiClass) {
+        if (settings.isSchemaRef) {
+            // 请求与响应的类型结构不同(如请求才有默认值), 定义按方向区分
+            val name = (if (isResponse) "resp:" else "req:") + psiType.canonicalText
+            if (!chains.contains(psiClass) && !session.definitions.containsKey(name))
+                session.definitions[name] = doParseDefinition(psiType, psiClass)
+            // 根类型直接展开, 以便请求参数扁平化
+            if (chains.size == 1)
+                item.properties = session.definitions[name]?.properties
+            else
+                item.ref = name
+            return
+        }
+
+        // 防止重复解析, 超出深度或节点数时截断
+        deepest = maxOf(deepest, chains.size)
+        if (chains.contains(psiClass) || isOverBudget()) {
+            cycleCuts++
             return
+        }
+        // 递归调用
+        item.properties = doParseBeanWithCache(psiType, psiClass)
+    }
+
+    /**
+     * 是否超出类型结构的展开限制
+     */
+    private fun isOverBudget(): Boolean {
+        val maxDepth = settings.schemaMaxDepth ?: 0
+        val maxNodes = settings.schemaMaxNodes ?: 0
+        return (maxDepth > 0 && chains.size > maxDepth) || (maxNodes > 0 && nodeCount > maxNodes)
+    }
+
+    /**
+     * 缓存的子树能否在当前位置完整展开, 而不超出限制
+     */
+    private fun isWithinBudget(entry: SchemaEntry): Boolean {
+        val maxDepth = settings.schemaMaxDepth ?: 0
+        val maxNodes = settings.schemaMaxNodes ?: 0
+        return (maxDepth <= 0 || chains.size + entry.depth <= maxDepth) && (maxNodes <= 0 || nodeCount + entry.nodes <= maxNodes)
+    }
 
+    /**
+     * 解析类型定义, 引用模式下使用
+     *    定义是跨接口共享的, 不依赖于调用链, 因此不走类型结构缓存
+     */
+    private fun doParseDefinition(psiType: PsiClassType, psiClass: PsiClass): Property {
+        val type = psiClass.qualifiedName ?: psiClass.name ?: ""
+        val definition = newProperty()
+        definition.name = psiClass.name
+        definition.properties = schemaCache.intern(doParseBean(type, psiType.resolveGenerics().substitutor, psiClass))
+        return definition
+    }
+
+    /**
+     * 处理Map类型
+     */
+    private fun doHandleMap(item: Property, psiType: PsiType) {
         // 尝试解析map值得类型
-        val kvGenericTypes = PsiGenericUtils.splitGenericParameters(genericTypes)
-        if (kvGenericTypes.size >= 2) {
-            val mapValueProperty = doParseType(null, kvGenericTypes[1], chains)
-            if (mapValueProperty != null) {
-                mapValueProperty.name = "KEY"
-                val properties: MutableMap<String, Property> = Maps.newHashMap()
-                properties[mapValueProperty.name] = mapValueProperty
-                item.properties = properties
-            }
+        val valueType = PsiUtil.substituteTypeParameter(psiType, CommonClassNames.JAVA_UTIL_MAP, 1, false) ?: return
+        val mapValueProperty = doParseType(valueType)
+        if (mapValueProperty != null) {
+            mapValueProperty.name = "KEY"
+            val properties: MutableMap<String, Property> = Maps.newHashMap()
+            properties[mapValueProperty.name] = mapValueProperty
+            item.properties = properties
         }
     }
 
     /**
-     * orm基类
+     * 解析bean类, 优先读缓存
+     * @param psiType 类型, 包含泛型参数
+     * @param psiClass 类型的PsiClass
+     * @return
      */
-    protected val ormBaseClass = JavaPsiFacade.getInstance(project).findClass("net.jkcode.jkmvc.orm.Orm", GlobalSearchScope.allScope(project))!!
+    private fun doParseBeanWithCache(psiType: PsiClassType, psiClass: PsiClass): Map<String, Property> {
+        val type = psiClass.qualifiedName ?: psiClass.name ?: ""
+        val genericTypes = if (psiType.hasParameters()) psiType.parameters.joinToString(",") { it.canonicalText } else null
+        val key = SchemaKey(psiClass, type, genericTypes, isResponse)
+        val cached = schemaCache.get(key)
+        // 缓存的是完整展开的子树, 超出剩余限制时重新解析(截断的结果不缓存)
+        if (cached != null && isWithinBudget(cached)) {
+            dependencyStack.peek()?.addAll(cached.dependencies)
+            nodeCount += cached.nodes
+            return cached.properties
+        }
+
+        val cuts = cycleCuts
+        val nodes = nodeCount
+        val outerDeepest = deepest
+        deepest = chains.size
+        val dependencies: MutableSet<PsiFile> = Sets.newHashSet()
+        addClassDependencies(psiClass, dependencies)
+        dependencyStack.push(dependencies)
+        val properties = try {
+            schemaCache.intern(doParseBean(type, psiType.resolveGenerics().substitutor, psiClass))
+        } finally {
+            dependencyStack.pop()
+        }
+        val depth = deepest - chains.size
+        deepest = maxOf(outerDeepest, deepest)
+        // 外层bean同样依赖于本bean所依赖的文件
+        dependencyStack.peek()?.addAll(dependencies)
+        // 有循环引用被截断时, 解析结果依赖于调用链, 不能缓存
+        if (cuts == cycleCuts)
+            schemaCache.put(key, properties, dependencies, nodeCount - nodes, depth)
+        return properties
+    }
+
+    /**
+     * 收集类及其父类所在的文件
+     */
+    private fun addClassDependencies(psiClass: PsiClass, dependencies: MutableSet<PsiFile>) {
+        psiClass.containingFile?.let { dependencies.add(it) }
+        for (superClass in InheritanceUtil.getSuperClasses(psiClass)) {
+            superClass.containingFile?.let { dependencies.add(it) }
+        }
+    }
 
     /**
      * 解析bean类
      * @param type 类型
-     * @param genericTypes 泛型
+     * @param substitutor 泛型参数的替换器
      * @param psiClass 类型的PsiClass
-     * @param chains 防止重复解析
      * @return
      */
-    private fun doParseBean(type: String, genericTypes: String?, psiClass: PsiClass, chains: Set<PsiClass>): Map<String, Property> {
-        // 防止循环引用
-        val newChains = if (chains != null) Sets.newHashSet(chains) else Sets.newHashSet<PsiClass>()
-        newChains.add(psiClass)
+    private fun doParseBean(type: String, substitutor: PsiSubstitutor, psiClass: PsiClass): Map<String, Property> {
         val properties: MutableMap<String, Property> = LinkedHashMap()
 
         // 针对接口/实体类, 检查是否存在@see引用, 引用属性被收集到properties
-        doParseBeanSees(type, psiClass, chains, properties)
-
-        val isOrm = psiClass.isInheritor(ormBaseClass, true) // 继承orm基类
-        if (psiClass.isInterface || isOrm) {
-            // 接口/orm类型: 解析getter
-            doParseBeanGetters(type, genericTypes, psiClass, newChains, isOrm, properties)
-        } else {
-            // 实体类: 解析字段
-            doParseBeanFields(type, genericTypes, psiClass, newChains, properties)
+        doParseBeanSees(type, psiClass, properties)
+
+        // 防止循环引用: 解析成员期间, 当前类在调用链中
+        val pushed = chains.push(psiClass)
+        try {
+            val isOrm = session.wellKnownTypes.isOrm(psiClass) // 继承orm基类
+            if (psiClass.isInterface || isOrm) {
+                // 接口/orm类型: 解析getter
+                doParseBeanGetters(type, substitutor, psiClass, isOrm, properties)
+            } else {
+                // 实体类: 解析字段
+                doParseBeanFields(type, substitutor, psiClass, properties)
+            }
+        } finally {
+            if (pushed)
+                chains.pop()
         }
         return properties
     }
@@ -206,10 +369,9 @@ class KernelParser(private val project: Project, private val module: Module, pri
      * 针对接口/实体类, 检查是否存在@see引用
      * @param type 类型
      * @param psiClass 类型的PsiClass
-     * @param chains 防止重复解析
      * @param properties 收集属性
      */
-    private fun doParseBeanSees(type: String, psiClass: PsiClass, chains: Set<PsiClass>, properties: MutableMap<String, Property>) {
+    private fun doParseBeanSees(type: String, psiClass: PsiClass, properties: MutableMap<String, Property>) {
         for (typeName in getTagTextSet(psiClass!!, DocumentTags.See)) {
             // 优先根据全限定名获取引用类, 其次根据非限定名(短名)获取.
             // [note] 建议用户尽量使用全限定名, 短名容易出现重名冲突.
@@ -225,25 +387,23 @@ class KernelParser(private val project: Project, private val module: Module, pri
             }
 
             // 获得引用类的属性
-            val item = PsiTypesUtil.getClassType(refPsiClass)?.let {
-                doParseType(it, it.getCanonicalText(), chains)
-            }
+            val item = doParseType(PsiTypesUtil.getClassType(refPsiClass))
             // 添加引用类的属性
-            if (item != null)
-                properties.putAll(item.properties)
+            val refProperties = item?.properties ?: item?.ref?.let { session.definitions[it]?.properties }
+            if (refProperties != null)
+                properties.putAll(refProperties)
         }
     }
 
     /**
      * 接口/orm类型: 解析getter
      * @param type 类型
-     * @param genericTypes 泛型
+     * @param substitutor 泛型参数的替换器
      * @param psiClass 类型的PsiClass
-     * @param chains 防止重复解析
      * @param isOrm 是否orm类
      * @param properties 收集属性
      */
-    private fun doParseBeanGetters(type: String, genericTypes: String?, psiClass: PsiClass, chains: HashSet<PsiClass>, isOrm: Boolean, properties: MutableMap<String, Property>) {
+    private fun doParseBeanGetters(type: String, substitutor: PsiSubstitutor, psiClass: PsiClass, isOrm: Boolean, properties: MutableMap<String, Property>) {
         val beanCustom = getBeanCustomSettings(type)
         val methods = PsiUtils.getGetterMethods(psiClass, isOrm)
         for (method in methods) {
@@ -254,8 +414,8 @@ class KernelParser(private val project: Project, private val module: Module, pri
             if (beanCustom != null && !beanCustom.isNeedHandleField(filedName))
                 continue
 
-            val realType = PsiGenericUtils.getRealTypeWithGeneric(psiClass, filedType, genericTypes)
-            val fieldProperty = doParseType(filedType, realType, chains) ?: continue
+            val realType = getRealType(psiClass, substitutor, method.containingClass, filedType!!)
+            val fieldProperty = doParseType(realType) ?: continue
             fieldProperty.name = filedName
             fieldProperty.deprecated = parseHelper.getApiDeprecated(method)
             fieldProperty.description = parseHelper.getMethodDescription(method)
@@ -270,12 +430,11 @@ class KernelParser(private val project: Project, private val module: Module, pri
     /**
      * 实体类: 解析字段
      * @param type 类型
-     * @param genericTypes 泛型
+     * @param substitutor 泛型参数的替换器
      * @param psiClass 类型的PsiClass
-     * @param chains 防止重复解析
      * @param properties 收集属性
      */
-    private fun doParseBeanFields(type: String, genericTypes: String?, psiClass: PsiClass, chains: HashSet<PsiClass>, properties: MutableMap<String, Property>) {
+    private fun doParseBeanFields(type: String, substitutor: PsiSubstitutor, psiClass: PsiClass, properties: MutableMap<String, Property>) {
         val beanCustom = getBeanCustomSettings(type)
         val fields = PsiUtils.getFields(psiClass)
         for (field in fields) {
@@ -288,8 +447,8 @@ class KernelParser(private val project: Project, private val module: Module, pri
             if (beanCustom != null && !beanCustom.isNeedHandleField(filedName))
                 continue
 
-            val realType = PsiGenericUtils.getRealTypeWithGeneric(psiClass, fieldType, genericTypes)
-            val fieldProperty = doParseType(fieldType, realType, chains) ?: continue
+            val realType = getRealType(psiClass, substitutor, field.containingClass, fieldType)
+            val fieldProperty = doParseType(realType) ?: continue
             dateParser.handle(fieldProperty, field)
             // 响应参数不要默认值
             if (!isResponse) {
@@ -311,6 +470,19 @@ class KernelParser(private val project: Project, private val module: Module, pri
         }
     }
 
+    /**
+     * 获得字段/getter的真实类型，替换泛型
+     *    字段可能声明在父类中, 需先将bean类的替换器转为父类的替换器
+     *    如 Page<User> 中父类的字段 List<T> rows -> List<User>
+     */
+    private fun getRealType(psiClass: PsiClass, substitutor: PsiSubstitutor, memberClass: PsiClass?, memberType: PsiType): PsiType {
+        val memberSubstitutor = if (memberClass == null || memberClass == psiClass)
+            substitutor
+        else
+            TypeConversionUtil.getClassSubstitutor(memberClass, psiClass, substitutor) ?: PsiSubstitutor.EMPTY
+        return memberSubstitutor.substitute(memberType) ?: memberType
+    }
+
     /**
      * 处理自定义的bean配置
      */
@@ -6,17 +6,13 @@ import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiType;
 import com.intellij.psi.util.PsiTypesUtil;
-import io.yapix.base.util.JsonUtils;
-import io.yapix.config.MockRule;
 import io.yapix.config.YapixConfig;
 import io.yapix.model.DataTypes;
 import io.yapix.model.Property;
+import io.yapix.parse.cache.EnumCache;
 import io.yapix.parse.constant.DocumentTags;
-import io.yapix.parse.util.PropertiesLoader;
 import io.yapix.parse.util.doc.PsiDocCommentHelperProxy;
 import io.yapix.parse.util.PsiTypeUtils;
-import java.util.List;
-import java.util.Properties;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -28,11 +24,15 @@ public class MockParser {
     private final Project project;
     private final Module module;
     private final YapixConfig settings;
+    private final TypeMappingTable mockTable;
+    private final MockRuleMatcher ruleMatcher;
 
     public MockParser(Project project, Module module, YapixConfig settings) {
         this.project = project;
         this.module = module;
         this.settings = settings;
+        this.mockTable = TypeMappingTable.compile(FILE, settings.getMocks());
+        this.ruleMatcher = new MockRuleMatcher(settings.getMockRules());
     }
 
     /**
@@ -62,8 +62,7 @@ public class MockParser {
         // 枚举类型
         PsiClass psiClass = PsiTypesUtil.getPsiClass(type);
         if (psiClass != null && psiClass.isEnum()) {
-            List<String> values = property.getValueList();
-            return "@pick(" + JsonUtils.toJson(values) + ")";
+            return EnumCache.getInstance(psiClass).getMock();
         }
         // 数组类型处理
         if (PsiTypeUtils.isArray(type) || PsiTypeUtils.isCollection(type, this.project, this.module)) {
@@ -71,29 +70,13 @@ public class MockParser {
         }
 
         // 自定义规则
-        String mock = matchRulesMock(property.getType(), filedName);
+        String mock = ruleMatcher.match(property.getType(), filedName);
         if (StringUtils.isNotEmpty(mock)) {
             return mock;
         }
 
-        // 规定规则
-        Properties properties = PropertiesLoader.getProperties(FILE);
-        return properties.getProperty(type.getCanonicalText());
-    }
-
-    /**
-     * 匹配自定义mock规则
-     */
-    private String matchRulesMock(String type, String filedName) {
-        if (settings.getMockRules() == null) {
-            return null;
-        }
-        for (MockRule rule : settings.getMockRules()) {
-            if (rule != null && rule.match(type, filedName)) {
-                return rule.getMock();
-            }
-        }
-        return null;
+        // 规定规则: mocks.properties 及 .yapix 中的 mocks[xxx]
+        return mockTable.get(type);
     }
 
 }
@@ -0,0 +1,182 @@
+package io.yapix.parse.parser
+
+import io.yapix.config.MockRule
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.regex.Pattern
+import java.util.regex.PatternSyntaxException
+import org.slf4j.LoggerFactory
+
+/**
+ * 自定义mock规则的匹配器
+ *    作用域: 一次解析动作, 由 MockParser 持有
+ *    规则先按数据类型分桶; 桶内的规则:
+ *    1 字面量规则(如 avatar|icon): 按字段名查hash表
+ *    2 正则规则: 合并为一个正则, 每条规则一个命名分组, 一次匹配即可知道命中的规则;
+ *      自带命名分组或反向引用的规则不能合并, 逐条匹配; 无效的正则跳过
+ *    多条规则都匹配时, 与逐条匹配一样取声明在前的规则
+ *    匹配结果按 (数据类型, 字段名) 缓存
+ */
+class MockRuleMatcher(rules: List<MockRule>?) {
+
+    companion object {
+
+        private val logger = LoggerFactory.getLogger(MockRuleMatcher::class.java)
+
+        /**
+         * 多个数据类型的分隔符, 如 string,integer 或 string|integer
+         */
+        private val TYPE_SEPARATOR = Regex("[,|\\s/]+")
+
+        /**
+         * 字面量规则的每个分支
+         */
+        private val LITERAL = Pattern.compile("[A-Za-z0-9_]+")
+
+        /**
+         * 反向引用: 合并后分组编号会变, 不能合并
+         */
+        private val BACK_REFERENCE = Pattern.compile("\\\\(\\d|k<)")
+
+        /**
+         * 命名分组: 多条规则的分组可能重名, 不能合并
+         */
+        private val NAMED_GROUP = Pattern.compile("\\(\\?<[A-Za-z]")
+
+        /**
+         * 未匹配的占位值: ConcurrentHashMap不能存null
+         */
+        private const val NONE = ""
+    }
+
+    /**
+     * 数据类型 -> 规则桶
+     */
+    private val buckets: Map<String, Bucket>
+
+    /**
+     * 匹配结果: 数据类型|字段名 -> mock
+     */
+    private val results: MutableMap<String, String> = ConcurrentHashMap()
+
+    init {
+        // 按数据类型分组, 保持声明顺序
+        val typeRules = LinkedHashMap<String, MutableList<IndexedValue<MockRule>>>()
+        rules.orEmpty().withIndex().forEach { rule ->
+            if (rule.value?.type == null || rule.value.match == null)
+                return@forEach
+            for (type in rule.value.type.split(TYPE_SEPARATOR).filter { it.isNotEmpty() })
+                typeRules.getOrPut(type) { ArrayList() }.add(rule)
+        }
+        buckets = typeRules.mapValues { Bucket(it.value) }
+    }
+
+    /**
+     * 匹配mock规则
+     * @return 未匹配时返回null
+     */
+    fun match(type: String?, fieldName: String?): String? {
+        if (type == null || fieldName == null)
+            return null
+        val bucket = buckets[type] ?: return null
+        val mock = results.computeIfAbsent("$type|$fieldName") { bucket.match(fieldName) ?: NONE }
+        return if (mock == NONE) null else mock
+    }
+
+    /**
+     * 同一数据类型的规则
+     */
+    private class Bucket(rules: List<IndexedValue<MockRule>>) {
+
+        /**
+         * 字面量规则: 小写字段名 -> 规则, 同名取声明在前的
+         */
+        private val literals = HashMap<String, IndexedValue<MockRule>>()
+
+        /**
+         * 合并的正则, 第i个分组名为ri
+         */
+        private val combined: Pattern?
+
+        /**
+         * 合并的正则对应的规则
+         */
+        private val combinedRules = ArrayList<IndexedValue<MockRule>>()
+
+        /**
+         * 无法合并的正则规则, 逐条匹配
+         */
+        private val patterns = ArrayList<Pair<Pattern, IndexedValue<MockRule>>>()
+
+        init {
+            val regex = StringBuilder()
+            for (rule in rules) {
+                val match = rule.value.match
+                val alternatives = match.split('|')
+                if (alternatives.all { LITERAL.matcher(it).matches() }) {
+                    alternatives.forEach { literals.putIfAbsent(it.toLowerCase(Locale.ROOT), rule) }
+                    continue
+                }
+                // 先单独编译, 无效的规则跳过, 不影响其他规则
+                val pattern = try {
+                    Pattern.compile(match, Pattern.CASE_INSENSITIVE)
+                } catch (e: PatternSyntaxException) {
+                    logger.warn("Invalid mock rule match: {}", match, e)
+                    continue
+                }
+                if (BACK_REFERENCE.matcher(match).find() || NAMED_GROUP.matcher(match).find()) {
+                    patterns.add(pattern to rule)
+                } else {
+                    if (regex.isNotEmpty())
+                        regex.append('|')
+                    regex.append("(?<r").append(combinedRules.size).append('>').append(match).append(')')
+                    combinedRules.add(rule)
+                }
+            }
+            combined = compileCombined(regex)
+        }
+
+        /**
+         * 编译合并的正则, 失败时合并的规则改为逐条匹配
+         */
+        private fun compileCombined(regex: StringBuilder): Pattern? {
+            if (regex.isEmpty())
+                return null
+            return try {
+                Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE)
+            } catch (e: PatternSyntaxException) {
+                combinedRules.forEach { patterns.add(Pattern.compile(it.value.match, Pattern.CASE_INSENSITIVE) to it) }
+                combinedRules.clear()
+                // 逐条匹配时取列表中在前的, 需按声明顺序
+                patterns.sortBy { it.second.index }
+                null
+            }
+        }
+
+        /**
+         * 匹配字段名, 取声明在前的规则
+         */
+        fun match(fieldName: String): String? {
+            var hit = literals[fieldName.toLowerCase(Locale.ROOT)]
+            if (combined != null) {
+                // 分支按顺序尝试, 因此命中的是合并规则中声明在前的
+                val matcher = combined.matcher(fieldName)
+                if (matcher.matches()) {
+                    val index = combinedRules.indices.first { matcher.group("r$it") != null }
+                    hit = earlier(hit, combinedRules[index])
+                }
+            }
+            for ((pattern, rule) in patterns) {
+                if (pattern.matcher(fieldName).matches()) {
+                    hit = earlier(hit, rule)
+                    break
+                }
+            }
+            return hit?.value?.mock
+        }
+
+        private fun earlier(a: IndexedValue<MockRule>?, b: IndexedValue<MockRule>): IndexedValue<MockRule> {
+            return if (a != null && a.index < b.index) a else b
+        }
+    }
+}
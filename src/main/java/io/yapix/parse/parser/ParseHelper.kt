@@ -5,6 +5,7 @@ import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
 import com.intellij.psi.*
 import io.yapix.model.Value
+import io.yapix.parse.cache.EnumCache
 import io.yapix.parse.constant.DocumentTags
 import io.yapix.parse.constant.JavaConstants
 import io.yapix.parse.constant.SpringConstants
@@ -14,6 +15,8 @@ import io.yapix.parse.util.doc.PsiDocCommentHelperProxy.getDocCommentTitle
 import io.yapix.parse.util.doc.PsiDocCommentHelperProxy.hasTagByName
 import net.jkcode.jkutil.common.camel2Underline
 import org.apache.commons.lang3.StringUtils
+import org.jetbrains.kotlin.asJava.elements.KtLightMethod
+import org.jetbrains.kotlin.psi.KtDeclarationWithBody
 import java.util.*
 import java.util.stream.Collectors
 
@@ -73,21 +76,68 @@ class ParseHelper(private val project: Project, private val module: Module) {
     }
 
     /**
-     * 获取接口描述
+     * 获取接口描述: 方法体之前的部分, 即注释+注解+修饰符+签名
+     *    直接截取文件文本中的区间, 无需生成整个方法(包括方法体)的文本
      */
     fun getApiDescription(psiMethod: PsiMethod): String {
-        var description = psiMethod.text
-        if (psiMethod.body != null) {
-            description = description.replace(psiMethod.body!!.text, "")
+        // kotlin的light方法没有body, 需从kotlin源码元素中获取
+        val origin = (psiMethod as? KtLightMethod)?.kotlinOrigin
+        val element: PsiElement = origin ?: psiMethod
+        val range = element.textRange
+        val fileText = element.containingFile?.viewProvider?.contents
+        val text: CharSequence
+        var start: Int
+        var end: Int
+        if (range != null && fileText != null && range.endOffset <= fileText.length) {
+            text = fileText
+            start = range.startOffset
+            // 去掉函数实现,即{}包住的代码块
+            val body = if (origin is KtDeclarationWithBody) origin.equalsToken ?: origin.bodyExpression else psiMethod.body
+            end = body?.textRange?.startOffset ?: indexOfBody(text, start, range.endOffset)
+        } else { // 无对应源码区间, 如编译的类
+            text = psiMethod.text
+            start = 0
+            end = text.length
         }
-        // 去掉函数实现,即{}包住的代码块
-        val idxComment = description.indexOf("*/") // 注释结束
-        if(idxComment != -1) { // 有注释
-            val idxImpl = description.indexOf('{', idxComment + 2)
-            description = description.substring(0, idxImpl).trim()
+        while (start < end && text[start].isWhitespace())
+            start++
+        while (end > start && text[end - 1].isWhitespace())
+            end--
+
+        // 转义html
+        val description = StringBuilder(end - start + 32)
+        description.append("   <pre><code>    ")
+        for (i in start until end) {
+            when (val c = text[i]) {
+                '<' -> description.append("&lt;")
+                '>' -> description.append("&gt;")
+                else -> description.append(c)
+            }
+        }
+        return description.append("</code></pre>").toString()
+    }
+
+    /**
+     * 查找函数实现的开始位置: 注释结束后的第一个{, 找不到则返回end
+     */
+    private fun indexOfBody(text: CharSequence, start: Int, end: Int): Int {
+        var i = start
+        // 跳过注释
+        var comment = -1
+        while (i < end - 1) {
+            if (text[i] == '*' && text[i + 1] == '/') {
+                comment = i + 2
+                break
+            }
+            i++
         }
-        description = description.replace("<", "&lt;").replace(">", "&gt;")
-        return "   <pre><code>    $description</code></pre>"
+        if (comment == -1)
+            return end
+        for (j in comment until end) {
+            if (text[j] == '{')
+                return j
+        }
+        return end
     }
 
     /**
@@ -154,17 +204,10 @@ class ParseHelper(private val project: Project, private val module: Module) {
     }
 
     /**
-     * 获取枚举值列表
+     * 获取枚举值列表, 每个枚举类只解析一次
      */
     fun getEnumValues(psiClass: PsiClass): List<Value> {
-        return psiClass.fields.mapNotNull { field ->
-            if(field is PsiEnumConstant){
-                val name = field.name
-                val description = getDocCommentTitle(field)
-                Value(name, description)
-            }else
-                null
-        }
+        return EnumCache.getInstance(psiClass).values
     }
     //---------------------- 字段相关 ------------------------------//
     /**
@@ -2,13 +2,11 @@ package io.yapix.parse.parser
 
 import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
-import com.intellij.psi.PsiClass
-import com.intellij.psi.PsiMethod
-import com.intellij.psi.PsiType
+import com.intellij.psi.*
 import com.intellij.psi.util.PsiTypesUtil
 import io.yapix.config.YapixConfig
 import io.yapix.model.Property
-import io.yapix.parse.util.PsiGenericUtils
+import io.yapix.parse.ParseSession
 import io.yapix.parse.util.PsiTypeUtils
 import io.yapix.parse.util.PsiUtils
 import org.apache.commons.lang3.StringUtils
@@ -19,11 +17,17 @@ import org.apache.commons.lang3.StringUtils
  *
  * @see .parse
  */
-open class ResponseParser(private val project: Project, private val module: Module, private val settings: YapixConfig) {
+open class ResponseParser(session: ParseSession) {
 
-    protected val kernelParser: KernelParser = KernelParser(project, module, settings, true)
+    private val project: Project = session.project
 
-    protected val parseHelper: ParseHelper = ParseHelper(project, module)
+    private val module: Module = session.module
+
+    private val settings: YapixConfig = session.settings
+
+    protected val kernelParser: KernelParser = KernelParser(session, true)
+
+    protected val parseHelper: ParseHelper = session.parseHelper
 
     /**
      * 解析方法响应数据
@@ -33,25 +37,18 @@ open class ResponseParser(private val project: Project, private val module: Modu
     open fun parse(method: PsiMethod): Property? {
         val returnType = method.returnType ?: return null
         var type: PsiType? = returnType
-        var typeText: String? = returnType.canonicalText
-        val unwrappedType = getUnwrapType(returnType)
-        if (unwrappedType != null) {
+        if (isUnwrapType(returnType)) {
             // 需要解开包赚类处理
-            val types = PsiGenericUtils.splitTypeAndGenericPair(unwrappedType)
-            val psiClass = PsiUtils.findPsiClass(project, module, types[0])
-            type = if (psiClass != null) PsiTypesUtil.getClassType(psiClass) else null
-            typeText = unwrappedType
+            type = (returnType as PsiClassType).parameters.firstOrNull()
         } else {
             // 包装类处理
             val returnClass = getWrapperPsiClass(method)
-            if (returnClass != null) {
-                type = PsiTypesUtil.getClassType(returnClass)
-                typeText = type.getCanonicalText() + "<" + returnType.canonicalText + ">"
-            }
+            if (returnClass != null)
+                type = getWrapperType(returnClass, returnType, method)
         }
 
         // 解析
-        val item = kernelParser.parseType(type, typeText, method)
+        val item = kernelParser.parseType(type, method)
         if (item != null) {
             item.description = parseHelper.getTypeDescription(type, item.values)
         }
@@ -59,19 +56,37 @@ open class ResponseParser(private val project: Project, private val module: Modu
     }
 
     /**
-     * 解开类型, 例如输入: ResponseEntity<User>, 那么应当处理类型: User
+     * 是否要解开类型, 例如输入: ResponseEntity<User>, 那么应当处理类型: User
      */
-    private fun getUnwrapType(type: PsiType): String? {
-        // 获取类型：types[0]=原始类型, types[1]=泛型参数
-        val types = PsiGenericUtils.splitTypeAndGenericPair(type.canonicalText)
+    private fun isUnwrapType(type: PsiType): Boolean {
+        if (type !is PsiClassType || !type.hasParameters())
+            return false
 
         // 是解开包装类， 例如： ResponseEntity<User>,
-        val unwrapOpt = settings.returnUnwrapTypes.any {
-            it == types[0]
+        val rawType = type.rawType().canonicalText
+        return settings.returnUnwrapTypes.any {
+            it == rawType
+        }
+    }
+
+    /**
+     * 获得包装后的类型, 例如: Result<User>
+     *    返回值作为包装类的第一个泛型参数, 原始类型要装箱
+     */
+    private fun getWrapperType(returnClass: PsiClass, returnType: PsiType, method: PsiMethod): PsiType {
+        if (!returnClass.hasTypeParameters())
+            return PsiTypesUtil.getClassType(returnClass)
+
+        val factory = JavaPsiFacade.getElementFactory(project)
+        val generic = when {
+            PsiType.VOID == returnType -> factory.createTypeByFQClassName(CommonClassNames.JAVA_LANG_VOID, method.resolveScope)
+            returnType is PsiPrimitiveType -> returnType.getBoxedType(method) ?: returnType
+            else -> returnType
         }
-        return if (unwrapOpt) {
-            types[1]
-        } else null
+        // 其他泛型参数按Object处理
+        val objectType = PsiType.getJavaLangObject(method.manager, method.resolveScope)
+        val generics = returnClass.typeParameters.indices.map { if (it == 0) generic else objectType }
+        return factory.createType(returnClass, *generics.toTypedArray())
     }
 
     /**
@@ -89,9 +104,8 @@ open class ResponseParser(private val project: Project, private val module: Modu
             return null
 
         // 是否是相同类型
-        val types = PsiGenericUtils.splitTypeAndGenericPair(returnType!!.canonicalText)
-        val theReturnType = types[0]
-        return if (theReturnType == returnClass.qualifiedName) null else returnClass
+        val theReturnType = PsiTypesUtil.getPsiClass(returnType)
+        return if (theReturnType?.qualifiedName == returnClass.qualifiedName) null else returnClass
     }
 
 }
@@ -0,0 +1,124 @@
+package io.yapix.parse.parser
+
+import com.intellij.psi.*
+import com.intellij.psi.util.InheritanceUtil
+import io.yapix.parse.util.PropertiesLoader
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * 类型映射表: 类型 -> 映射值, 如 types.properties 中的数据类型, mocks.properties 中的mock规则
+ *    由内置properties文件与.yapix中的覆盖配置(如 types[xxx]=yyy)合并编译而成, 编译后不再修改
+ *    映射规则按优先级:
+ *    1 精确类型: 如 java.lang.Long, java.util.List<net.jkcode.jkmvc.http.PartFile>, 无泛型的规则也匹配其泛型类
+ *    2 包通配: 如 com.xxx.*, 匹配该包及其子包下的类, 包名长的优先
+ *    3 父类型: 类名前加+, 如 +com.xxx.BaseId, 匹配其子类, 按声明顺序
+ *    原始类型与无泛型的类直接按类名查找, 无需生成类型全文(canonicalText)
+ */
+class TypeMappingTable private constructor(
+    private val exacts: Map<String, String>,
+    private val packages: List<Pair<String, String>>,
+    private val supers: List<Pair<String, String>>
+) {
+
+    companion object {
+
+        /**
+         * 包通配规则的后缀
+         */
+        private const val PACKAGE_SUFFIX = ".*"
+
+        /**
+         * 父类型规则的前缀
+         */
+        private const val SUPER_PREFIX = "+"
+
+        /**
+         * 规则未匹配的占位值: ConcurrentHashMap不能存null
+         */
+        private const val NONE = ""
+
+        /**
+         * 编译映射表
+         * @param file 内置的properties文件, 只加载一次
+         * @param overrides 覆盖配置, 优先于内置文件
+         */
+        @JvmStatic
+        fun compile(file: String, overrides: Map<String, String>?): TypeMappingTable {
+            val rules = LinkedHashMap<String, String>()
+            val builtin = PropertiesLoader.getProperties(file)
+            for (key in builtin.stringPropertyNames())
+                rules[key] = builtin.getProperty(key)
+            if (overrides != null)
+                rules.putAll(overrides)
+
+            val exacts = HashMap<String, String>()
+            val packages = ArrayList<Pair<String, String>>()
+            val supers = ArrayList<Pair<String, String>>()
+            for ((key, value) in rules) {
+                val rule = key.trim()
+                when {
+                    rule.startsWith(SUPER_PREFIX) -> supers.add(rule.substring(SUPER_PREFIX.length).trim() to value.trim())
+                    rule.endsWith(PACKAGE_SUFFIX) -> packages.add(rule.substring(0, rule.length - 1) to value.trim()) // 保留末尾的.
+                    else -> exacts[rule] = value.trim()
+                }
+            }
+            packages.sortByDescending { it.first.length }
+            return TypeMappingTable(exacts, packages, supers)
+        }
+    }
+
+    /**
+     * 有泛型的精确规则的原始类名, 只有这些类才需生成类型全文来匹配
+     */
+    private val genericRawTypes: Set<String> = exacts.keys.filter { it.contains('<') }.map { it.substringBefore('<') }.toSet()
+
+    /**
+     * 是否有数组的精确规则
+     */
+    private val hasArrays: Boolean = exacts.keys.any { it.endsWith("[]") }
+
+    /**
+     * 类匹配包通配/父类型规则的结果
+     */
+    private val classRules: MutableMap<PsiClass, String> = ConcurrentHashMap()
+
+    /**
+     * 获得类型的映射值
+     * @return 未匹配时返回null
+     */
+    fun get(type: PsiType): String? {
+        return when (type) {
+            is PsiPrimitiveType -> exacts[type.name]
+            is PsiClassType -> getClassType(type)
+            is PsiArrayType -> if (hasArrays) exacts[type.canonicalText] else null
+            else -> exacts[type.canonicalText]
+        }
+    }
+
+    /**
+     * 获得类的映射值
+     */
+    private fun getClassType(type: PsiClassType): String? {
+        // 无法解析的类, 只能按文本匹配
+        val psiClass = type.resolve() ?: return exacts[type.canonicalText]
+        // 泛型变量/匿名类
+        val qualifiedName = psiClass.qualifiedName ?: return null
+        if (type.hasParameters() && genericRawTypes.contains(qualifiedName))
+            exacts[type.canonicalText]?.let { return it }
+        exacts[qualifiedName]?.let { return it }
+
+        if (packages.isEmpty() && supers.isEmpty())
+            return null
+        val value = classRules.computeIfAbsent(psiClass) { matchRules(psiClass, qualifiedName) ?: NONE }
+        return if (value == NONE) null else value
+    }
+
+    /**
+     * 匹配包通配/父类型规则
+     */
+    private fun matchRules(psiClass: PsiClass, qualifiedName: String): String? {
+        packages.firstOrNull { qualifiedName.startsWith(it.first) }?.let { return it.second }
+        supers.firstOrNull { InheritanceUtil.isInheritor(psiClass, it.first) }?.let { return it.second }
+        return null
+    }
+}
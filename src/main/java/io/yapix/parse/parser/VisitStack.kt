@@ -0,0 +1,46 @@
+package io.yapix.parse.parser
+
+import com.intellij.psi.PsiClass
+import java.util.*
+
+/**
+ * 正在解析的类的栈(调用链), 用于检测循环引用
+ *    进入bean时入栈, 解析完出栈, 无需每层复制集合; 判断是否在栈中为O(1)
+ *    栈中的类不重复, 非线程安全: 每个KernelParser一个
+ */
+internal class VisitStack {
+
+    private val stack: Deque<PsiClass> = ArrayDeque()
+
+    private val members: MutableSet<PsiClass> = HashSet()
+
+    /**
+     * 入栈
+     * @return 已在栈中时不入栈, 返回false
+     */
+    fun push(psiClass: PsiClass): Boolean {
+        if (!members.add(psiClass))
+            return false
+        stack.push(psiClass)
+        return true
+    }
+
+    /**
+     * 出栈
+     */
+    fun pop() {
+        members.remove(stack.pop())
+    }
+
+    operator fun contains(psiClass: PsiClass): Boolean {
+        return members.contains(psiClass)
+    }
+
+    val size: Int
+        get() = stack.size
+
+    fun clear() {
+        stack.clear()
+        members.clear()
+    }
+}
@@ -1,17 +1,13 @@
 package io.yapix.parse.parser.jkmvc
 
-import com.google.gson.Gson
-import com.intellij.openapi.module.Module
-import com.intellij.openapi.project.Project
 import com.intellij.psi.JavaPsiFacade
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiMethod
 import com.intellij.psi.PsiModifier
 import com.intellij.psi.search.GlobalSearchScope
-import io.yapix.config.YapixConfig
 import io.yapix.config.YapixConfigUtils
-import io.yapix.model.Api
 import io.yapix.model.HttpMethod
+import io.yapix.parse.ParseSession
 import io.yapix.parse.constant.DocumentTags
 import io.yapix.parse.model.ControllerApiInfo
 import io.yapix.parse.model.MethodParseData
@@ -20,7 +16,6 @@ import io.yapix.parse.parser.AbstractApiParser
 import io.yapix.parse.parser.IRequestParser
 import io.yapix.parse.parser.ResponseParser
 import io.yapix.parse.util.PathUtils
-import io.yapix.parse.util.PsiUtils
 import io.yapix.parse.util.doc.PsiDocCommentHelperProxy
 import net.jkcode.jkutil.common.Config
 import net.jkcode.jkutil.common.camel2Underline
@@ -30,10 +25,9 @@ import net.jkcode.jkutil.common.lcFirst
 /**
  * jkmvc Api接口解析器
  */
-public class JkmvcApiParser(project: Project, module: Module, settings: YapixConfig) : AbstractApiParser(project, module, settings) {
+public class JkmvcApiParser(session: ParseSession) : AbstractApiParser(session) {
 
     companion object {
-        private val gson = Gson()
 
         /**
          * 忽略的方法
@@ -48,15 +42,10 @@ public class JkmvcApiParser(project: Project, module: Module, settings: YapixCon
     }
 
     // 请求解析器
-    protected override val requestParser: IRequestParser = JkmvcRequestParser(project, module, settings)
+    protected override val requestParser: IRequestParser = JkmvcRequestParser(session)
 
     // 响应解析器
-    protected override val responseParser: ResponseParser = JkmvcResponseParser(project, module, settings)
-
-    /**
-     * controller基类
-     */
-    protected val controllerBaseClass = PsiUtils.findPsiClass(project, null, "net.jkcode.jkmvc.http.controller.Controller")!!
+    protected override val responseParser: ResponseParser = JkmvcResponseParser(session)
 
     /**
      * 判断是否是控制类或接口
@@ -67,7 +56,7 @@ public class JkmvcApiParser(project: Project, module: Module, settings: YapixCon
             return false
 
         // 2 继承controller基类
-        return psiClass.isInheritor(controllerBaseClass, true)
+        return session.wellKnownTypes.isController(psiClass)
     }
 
     /**
@@ -144,7 +133,7 @@ public class JkmvcApiParser(project: Project, module: Module, settings: YapixCon
         val apis = mapping.paths.map { path: String? ->
             var api = methodApi
             if (mapping.paths.size > 1) {
-                api = gson.fromJson(gson.toJson(methodApi), Api::class.java)
+                api = methodApi.copy()
             }
             api.method = mapping.method
             api.path = PathUtils.path(controllerInfo.path, path)
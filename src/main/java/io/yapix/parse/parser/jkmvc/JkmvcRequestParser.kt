@@ -1,11 +1,10 @@
 package io.yapix.parse.parser.jkmvc
 
 import com.google.common.collect.Lists
-import com.intellij.openapi.module.Module
-import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiMethod
 import io.yapix.config.YapixConfig
 import io.yapix.model.*
+import io.yapix.parse.ParseSession
 import io.yapix.parse.model.RequestParseInfo
 import io.yapix.parse.parser.DateParser
 import io.yapix.parse.parser.IRequestParser
@@ -19,13 +18,15 @@ import org.apache.commons.lang3.StringUtils
  *
  * @see .parse
  */
-class JkmvcRequestParser(project: Project, module: Module, private val settings: YapixConfig) : IRequestParser {
+class JkmvcRequestParser(session: ParseSession) : IRequestParser {
 
-    private val kernelParser = KernelParser(project, module, settings, false)
+    private val settings: YapixConfig = session.settings
 
-    private val dateParser = DateParser(settings)
+    private val kernelParser = KernelParser(session, false)
 
-    private val parseHelper = ParseHelper(project, module)
+    private val dateParser: DateParser = session.dateParser
+
+    private val parseHelper: ParseHelper = session.parseHelper
 
     /**
      * 解析请求参数信息
@@ -154,7 +155,7 @@ class JkmvcRequestParser(project: Project, module: Module, private val settings:
          *    集合：解析泛型为Property.items
          *    对象:解析属性为Property.properties
          */
-        val item = kernelParser.parseType(null, type, method)!! // 解析类型，会填充 item.type / item.values
+        val item = kernelParser.parseType(type, method)!! // 解析类型，会填充 item.type / item.values
         item.required = required
         item.name = name
         item.defaultValue = defaultValue
@@ -173,10 +174,10 @@ class JkmvcRequestParser(project: Project, module: Module, private val settings:
         }
         val needFlat = item.isObjectType && item.properties != null && ParameterIn.query == item.getIn()
         if (needFlat) {
-            val flatItems: Collection<Property> = item.properties.values
-            for(one in flatItems)
-                one.setIn(item.getIn())
-            return flatItems
+            // bean属性是共享的, 复制后再修改
+            return item.properties.values.map { one ->
+                one.copy().also { it.setIn(item.getIn()) }
+            }
         }
         return listOf(item)
     }
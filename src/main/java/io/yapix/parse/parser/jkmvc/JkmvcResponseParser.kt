@@ -1,10 +1,8 @@
 package io.yapix.parse.parser.jkmvc
 
-import com.intellij.openapi.module.Module
-import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiMethod
-import io.yapix.config.YapixConfig
 import io.yapix.model.Property
+import io.yapix.parse.ParseSession
 import io.yapix.parse.constant.DocumentTags
 import io.yapix.parse.parser.ResponseParser
 import io.yapix.parse.util.doc.KtPsiDocCommentHelper
@@ -15,13 +13,13 @@ import io.yapix.parse.util.doc.PsiDocCommentHelperProxy
  *  1 先尝试解析注释
  *  2 再解析方法返回值
  */
-class JkmvcResponseParser(project: Project, module: Module, settings: YapixConfig): ResponseParser(project, module, settings) {
+class JkmvcResponseParser(session: ParseSession): ResponseParser(session) {
 
     override fun parse(method: PsiMethod): Property? {
         // 1 先尝试解析注释
         val type = PsiDocCommentHelperProxy.getReturnTagLinkText(method)// 获得 @return 标记 中link的类
         if(type != null) // 解析
-            return kernelParser.parseType(null, type, method)
+            return kernelParser.parseType(type, method)
 
         // 2 再解析方法返回值
         return super.parse(method)
@@ -1,13 +1,9 @@
 package io.yapix.parse.parser.spring
 
-import com.google.gson.Gson
-import com.intellij.openapi.module.Module
-import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiMethod
 import com.intellij.psi.PsiModifier
-import io.yapix.config.YapixConfig
-import io.yapix.model.Api
+import io.yapix.parse.ParseSession
 import io.yapix.parse.constant.DocumentTags
 import io.yapix.parse.constant.SpringConstants
 import io.yapix.parse.model.ControllerApiInfo
@@ -24,17 +20,13 @@ import java.util.stream.Collectors
 /**
  * spring Api接口解析器
  */
-public class SpringApiParser(project: Project, module: Module, settings: YapixConfig) : AbstractApiParser(project, module, settings) {
-
-    companion object {
-        private val gson = Gson()
-    }
+public class SpringApiParser(session: ParseSession) : AbstractApiParser(session) {
 
     // 请求解析器
-    protected override val requestParser: IRequestParser = SpringRequestParser(project, module, settings)
+    protected override val requestParser: IRequestParser = SpringRequestParser(session)
 
     // 响应解析器
-    protected override val responseParser: ResponseParser = ResponseParser(project, module, settings)
+    protected override val responseParser: ResponseParser = ResponseParser(session)
 
     /**
      * 判断是否是控制类或接口
@@ -96,7 +88,7 @@ public class SpringApiParser(project: Project, module: Module, settings: YapixCo
         val apis = mapping.paths.stream().map { path: String? ->
             var api = methodApi
             if (mapping.paths.size > 1) {
-                api = gson.fromJson(gson.toJson(methodApi), Api::class.java)
+                api = methodApi.copy()
             }
             api.method = mapping.method
             api.path = PathUtils.path(controllerInfo.path, path)
@@ -9,8 +9,6 @@ import static io.yapix.parse.constant.SpringConstants.RequestParam;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.intellij.codeInsight.AnnotationUtil;
-import com.intellij.openapi.module.Module;
-import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiParameter;
@@ -20,17 +18,17 @@ import io.yapix.model.HttpMethod;
 import io.yapix.model.ParameterIn;
 import io.yapix.model.Property;
 import io.yapix.model.RequestBodyType;
+import io.yapix.parse.ParseSession;
 import io.yapix.parse.constant.SpringConstants;
 import io.yapix.parse.model.RequestParseInfo;
+import io.yapix.parse.parser.DataTypeParser;
 import io.yapix.parse.parser.DateParser;
 import io.yapix.parse.parser.IRequestParser;
 import io.yapix.parse.parser.KernelParser;
 import io.yapix.parse.parser.ParseHelper;
 import io.yapix.parse.util.PsiAnnotationUtils;
 import io.yapix.parse.util.doc.PsiDocCommentHelperProxy;
-import io.yapix.parse.util.PsiTypeUtils;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -51,12 +49,14 @@ public class SpringRequestParser implements IRequestParser {
     private final KernelParser kernelParser;
     private final ParseHelper parseHelper;
     private final DateParser dateParser;
+    private final DataTypeParser dataTypeParser;
 
-    public SpringRequestParser(Project project, Module module, YapixConfig settings) {
-        this.settings = settings;
-        this.kernelParser = new KernelParser(project, module, settings, false);
-        this.dateParser = new DateParser(settings);
-        this.parseHelper = new ParseHelper(project, module);
+    public SpringRequestParser(ParseSession session) {
+        this.settings = session.getSettings();
+        this.kernelParser = new KernelParser(session, false);
+        this.dateParser = session.getDateParser();
+        this.dataTypeParser = session.getDataTypeParser();
+        this.parseHelper = session.getParseHelper();
     }
 
     /**
@@ -100,7 +100,7 @@ public class SpringRequestParser implements IRequestParser {
         if (requestBody)
             return RequestBodyType.json;
 
-        boolean multipartFile = parameters.stream().anyMatch(p -> PsiTypeUtils.isFileIncludeArray(p.getType()));
+        boolean multipartFile = parameters.stream().anyMatch(p -> dataTypeParser.isFileIncludeArray(p.getType()));
         if (multipartFile)
             return RequestBodyType.form_data;
 
@@ -121,7 +121,7 @@ public class SpringRequestParser implements IRequestParser {
         PsiParameter bp = parameters.stream()
                 .filter(p -> p.getAnnotation(RequestBody) != null).findFirst().orElse(null);
         if (bp != null) {
-            Property item = kernelParser.parseType(bp.getType(), bp.getType().getCanonicalText(), method);
+            Property item = kernelParser.parseType(bp.getType(), method);
 
             // 方法上的参数描述
             String parameterDescription = paramTagMap.get(bp.getName());
@@ -134,9 +134,9 @@ public class SpringRequestParser implements IRequestParser {
         // 文件
         List<Property> items = Lists.newArrayList();
         List<PsiParameter> fileParameters = parameters.stream()
-                .filter(p -> PsiTypeUtils.isFileIncludeArray(p.getType())).collect(Collectors.toList());
+                .filter(p -> dataTypeParser.isFileIncludeArray(p.getType())).collect(Collectors.toList());
         for (PsiParameter p : fileParameters) {
-            Property item = kernelParser.parseType(p.getType(), p.getType().getCanonicalText(), method);
+            Property item = kernelParser.parseType(p.getType(), method);
             item.setType(DataTypes.FILE);
             item.setName(p.getName());
             item.setRequired(true);
@@ -167,7 +167,7 @@ public class SpringRequestParser implements IRequestParser {
     public List<Property> getRequestParameters(PsiMethod method, List<PsiParameter> parameterList) {
         List<PsiParameter> parameters = parameterList.stream()
                 .filter(p -> p.getAnnotation(RequestBody) == null)
-                .filter(p -> !PsiTypeUtils.isFileIncludeArray(p.getType()))
+                .filter(p -> !dataTypeParser.isFileIncludeArray(p.getType()))
                 .collect(Collectors.toList());
 
         // 获取方法@param标记信息
@@ -204,7 +204,7 @@ public class SpringRequestParser implements IRequestParser {
      * 解析单个参数
      */
     private Property doParseParameter(PsiMethod method, PsiParameter parameter) {
-        Property item = kernelParser.parseType(parameter.getType(), parameter.getType().getCanonicalText(), method);
+        Property item = kernelParser.parseType(parameter.getType(), method);
         dateParser.handle(item, parameter);
 
         // 处理参数注解: @RequestParam等
@@ -263,9 +263,12 @@ public class SpringRequestParser implements IRequestParser {
 
         boolean needFlat = item.isObjectType() && item.getProperties() != null && ParameterIn.query == item.getIn();
         if (needFlat) {
-            Collection<Property> flatItems = item.getProperties().values();
-            flatItems.forEach(one -> one.setIn(item.getIn()));
-            return Lists.newArrayList(flatItems);
+            // bean属性是共享的, 复制后再修改
+            return item.getProperties().values().stream().map(one -> {
+                Property copy = one.copy();
+                copy.setIn(item.getIn());
+                return copy;
+            }).collect(Collectors.toList());
         }
         return Lists.newArrayList(item);
     }
@@ -1,14 +1,31 @@
 package io.yapix.parse.util
 
+import com.intellij.openapi.util.Key
+import com.intellij.psi.JavaPsiFacade
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiClassOwner
 import com.intellij.psi.PsiDocCommentOwner
 import com.intellij.psi.PsiField
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiPrimitiveType
+import com.intellij.psi.PsiType
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import com.intellij.psi.util.PsiTypesUtil
 import com.intellij.psi.impl.source.PsiClassImpl
 import io.yapix.parse.util.doc.JavaPsiDocCommentHelper
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 
 object PsiLinkUtils {
 
+    /**
+     * 文件级别的类解析缓存的key
+     */
+    private val LINK_CACHE_KEY = Key.create<CachedValue<FileLinkCache>>("io.yapix.LinkClassCache")
+
     /**
      * 获得link的类全路径
      */
@@ -27,7 +44,24 @@ object PsiLinkUtils {
             return null
 
         val classPath = classPath.substringBefore('<') // 去掉泛型
+        val file = element.containingFile ?: return doGetLinkClass(element, classPath, null)
+
+        // 读文件级别的缓存, 包括类不存在的结果
+        val cache = CachedValuesManager.getManager(element.project).getCachedValue(file, LINK_CACHE_KEY, {
+            CachedValueProvider.Result.create(FileLinkCache(file), file, PsiModificationTracker.MODIFICATION_COUNT)
+        }, false)
+        return cache.classes.computeIfAbsent(classPath) {
+            Optional.ofNullable(doGetLinkClass(element, classPath, cache))
+        }.orElse(null)
+    }
 
+    /**
+     * 获得link的类, 不读缓存
+     * @param element
+     * @param classPath 类路径，但不一定是全路径
+     * @param cache 文件级别的缓存, 用于复用import列表与包名
+     */
+    private fun doGetLinkClass(element: PsiDocCommentOwner, classPath: String, cache: FileLinkCache?): PsiClass? {
         // 1 直接全路径
         val project = element.project
         var psiClass = PsiUtils.findPsiClass(project, null, classPath)
@@ -36,7 +70,7 @@ object PsiLinkUtils {
 
         // 2 非全路径，尝试获得全路径
         // 2.1 处理import的类
-        val imports = PsiUtils.getImportsInFile(element.containingFile)
+        val imports = cache?.imports ?: PsiUtils.getImportsInFile(element.containingFile)
 
         // 将类路径拆为2片段
         val parts = classPath.split('.', limit = 2)
@@ -55,7 +89,7 @@ object PsiLinkUtils {
         // 2.2 处理同包的类
         if (psiClass == null) {
             // 加上包名的全路径
-            val fullPath = PsiUtils.getPakcageName(element) + "." + classPath
+            val fullPath = (cache?.packageName ?: PsiUtils.getPakcageName(element)) + "." + classPath
             psiClass = PsiUtils.findPsiClass(project, null, fullPath)
         }
 
@@ -74,6 +108,54 @@ object PsiLinkUtils {
         return psiClass
     }
 
+    /**
+     * 获得link的类型, 支持泛型与数组
+     *   泛型参数中的类同样要修复全路径, 如 List<User> -> java.util.List<com.xxx.User>
+     * @param element
+     * @param typeText 类型文本，但类不一定是全路径
+     * @return 类不存在时返回null
+     */
+    public fun getLinkType(element: PsiDocCommentOwner, typeText: String): PsiType? {
+        val typeText = typeText.trim()
+        // 数组
+        if (typeText.endsWith("[]"))
+            return getLinkType(element, typeText.substring(0, typeText.length - 2))?.createArrayType()
+
+        // 原始类型
+        val types = PsiGenericUtils.splitTypeAndGenericPair(typeText)
+        val primitiveType = PsiTypeUtils.getPrimitiveType(types[0])
+        if (primitiveType != null)
+            return primitiveType
+
+        val psiClass = getLinkClass(element, types[0]) ?: return null
+        if (types[1] == null || !psiClass.hasTypeParameters())
+            return PsiTypesUtil.getClassType(psiClass)
+
+        // 泛型参数: 原始类型要装箱, string简写按String处理, 无法识别或缺少的参数按Object处理
+        val texts = PsiGenericUtils.splitGenericParameters(types[1])
+        val generics = psiClass.typeParameters.indices.map { i ->
+            val type = texts.getOrNull(i)?.let {
+                if (isStringShorthand(it))
+                    PsiType.getJavaLangString(element.manager, element.resolveScope)
+                else
+                    getLinkType(element, it)
+            }
+            if (type is PsiPrimitiveType)
+                type.getBoxedType(element) ?: PsiType.getJavaLangObject(element.manager, element.resolveScope)
+            else
+                type ?: PsiType.getJavaLangObject(element.manager, element.resolveScope)
+        }
+        return JavaPsiFacade.getElementFactory(element.project).createType(psiClass, *generics.toTypedArray())
+    }
+
+    /**
+     * 是否string类简写, 如 List<string> 中的 string, 参考 KernelParser.parseType(String, PsiMethod)
+     */
+    private fun isStringShorthand(typeText: String): Boolean {
+        val type = typeText.trim().toLowerCase()
+        return type == "string" || type == "date"
+    }
+
     /**
      * 获得link的类备注
      *   类名+所有字段描述
@@ -90,3 +172,27 @@ object PsiLinkUtils {
         }
     }
 }
+
+/**
+ * 文件级别的类解析缓存
+ *    文件或其他psi变化后失效, 因此类不存在的结果也可以缓存
+ */
+internal class FileLinkCache(file: PsiFile) {
+
+    /**
+     * import列表: <类短名, 类全名>
+     */
+    val imports: Map<String, String> = PsiUtils.getImportsInFile(file)
+
+    /**
+     * 包名
+     */
+    val packageName: String? by lazy {
+        (file as? PsiClassOwner)?.packageName
+    }
+
+    /**
+     * 已解析的类: <类路径, 类>
+     */
+    val classes: MutableMap<String, Optional<PsiClass>> = ConcurrentHashMap()
+}
@@ -5,9 +5,7 @@ import com.intellij.openapi.project.Project
 import com.intellij.psi.*
 import com.intellij.psi.impl.source.PsiClassReferenceType
 import com.intellij.psi.util.PsiTypesUtil
-import io.yapix.model.DataTypes
-import io.yapix.parse.constant.JavaConstants
-import io.yapix.parse.parser.DataTypeParser
+import io.yapix.parse.cache.WellKnownTypes
 
 /**
  * PsiType相关工具.
@@ -92,18 +90,14 @@ object PsiTypeUtils {
      */
     @JvmStatic
     fun isCollection(type: PsiType, project: Project, module: Module?): Boolean {
-        val mapPsiClass = PsiUtils.findPsiClass(project, module, JavaConstants.Collection)
-        val mapPsiType = PsiTypesUtil.getClassType(mapPsiClass!!)
-        return mapPsiType.isAssignableFrom(type)
+        return WellKnownTypes.getInstance(project, module).isCollection(type)
     }
 
     /**
      * 是否是Map，以及其子类型
      */
     fun isMap(type: PsiType, project: Project, module: Module?): Boolean {
-        val mapPsiClass = PsiUtils.findPsiClass(project, module, JavaConstants.Map)
-        val mapPsiType = PsiTypesUtil.getClassType(mapPsiClass!!)
-        return mapPsiType.isAssignableFrom(type)
+        return WellKnownTypes.getInstance(project, module).isMap(type)
     }
 
     /**
@@ -130,18 +124,10 @@ object PsiTypeUtils {
         if (enumType == null)
             return null
 
-        val enumClass = PsiUtils.findPsiClass(project, module, enumType.canonicalText)
+        val enumClass = PsiTypesUtil.getPsiClass(enumType)
         if (enumClass != null && enumClass.isEnum)
             return enumClass
 
         return null
     }
-
-    /**
-     * 是否是文件上传
-     */
-    @JvmStatic
-    fun isFileIncludeArray(type: PsiType): Boolean {
-        return DataTypes.FILE == DataTypeParser.getTypeInProperties(type)
-    }
 }
@@ -0,0 +1,104 @@
+package io.yapix.parse.util
+
+import io.yapix.config.YapixConfig
+import io.yapix.model.Api
+import io.yapix.model.Property
+
+/**
+ * 类型引用展开
+ *    将属性引用的类型定义(Api.definitions)展开为properties, 用于不支持引用的输出目标
+ *    定义是共享的, 展开时写时复制, 不修改原属性
+ *    循环引用只展开一层, 超出最大深度/最大节点数时截断, 参考 YapixConfig.schemaMaxDepth/schemaMaxNodes
+ */
+class SchemaRefInliner private constructor(
+    private val definitions: Map<String, Property>,
+    maxDepth: Int?,
+    maxNodes: Int?
+) {
+
+    companion object {
+
+        /**
+         * 展开接口中的类型引用
+         * @return 展开后的接口, 不再有类型定义
+         */
+        @JvmStatic
+        fun inline(apis: List<Api>, settings: YapixConfig): List<Api> {
+            for (api in apis) {
+                val definitions = api.definitions ?: continue
+                val inliner = SchemaRefInliner(definitions, settings.schemaMaxDepth, settings.schemaMaxNodes)
+                api.parameters = api.parameters?.map { inliner.inlineRoot(it) }
+                api.requestBody = api.requestBody?.let { inliner.inlineRoot(it) }
+                api.requestBodyForm = api.requestBodyForm?.map { inliner.inlineRoot(it) }
+                api.responses = api.responses?.let { inliner.inlineRoot(it) }
+                api.definitions = null
+            }
+            return apis
+        }
+    }
+
+    private val maxDepth = maxDepth ?: 0
+
+    private val maxNodes = maxNodes ?: 0
+
+    /**
+     * 当前根属性已展开的节点数
+     */
+    private var nodeCount = 0
+
+    /**
+     * 展开根属性
+     *    根类型的bean在解析时已展开, 属于第1层
+     */
+    private fun inlineRoot(property: Property): Property {
+        nodeCount = 0
+        return inline(property, 1, emptySet())
+    }
+
+    /**
+     * 展开属性
+     * @param depth 所在bean的嵌套深度
+     * @param visiting 正在展开的类型定义, 防止循环引用
+     * @return 无引用时返回原属性
+     */
+    private fun inline(property: Property, depth: Int, visiting: Set<String>): Property {
+        nodeCount++
+        val ref = property.ref
+        if (ref != null) {
+            val copy = property.copy()
+            copy.ref = null
+            val definition = definitions[ref]
+            val isOverBudget = (maxDepth > 0 && depth >= maxDepth) || (maxNodes > 0 && nodeCount > maxNodes)
+            // 截断: 只保留类型
+            if (definition?.properties == null || visiting.contains(ref) || isOverBudget)
+                return copy
+            copy.properties = inlineMap(definition.properties, depth + 1, visiting + ref)
+            return copy
+        }
+
+        val items = property.items?.let { inline(it, depth, visiting) }
+        val properties = property.properties?.let { inlineMap(it, depth, visiting) }
+        if (items === property.items && properties === property.properties)
+            return property
+
+        val copy = property.copy()
+        copy.items = items
+        copy.properties = properties
+        return copy
+    }
+
+    /**
+     * 展开属性map
+     * @return 无引用时返回原map
+     */
+    private fun inlineMap(properties: Map<String, Property>, depth: Int, visiting: Set<String>): Map<String, Property> {
+        var changed = false
+        val result = LinkedHashMap<String, Property>()
+        for ((name, property) in properties) {
+            val inlined = inline(property, depth, visiting)
+            changed = changed || inlined !== property
+            result[name] = inlined
+        }
+        return if (changed) result else properties
+    }
+}
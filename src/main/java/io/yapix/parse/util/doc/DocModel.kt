@@ -0,0 +1,59 @@
+package io.yapix.parse.util.doc
+
+/**
+ * 解析后的文档注释
+ *    由 IPsiDocCommentHelper.parseDocModel() 一次性解析, 不可修改, 参考 PsiDocCommentHelperProxy.getDocModel()
+ * @param title 文档标题行: 文档第一行
+ * @param text 文档内容
+ * @param tags 标记: <标记名, 同名标记>
+ * @param params @param标记: <字段名, 字段描述>
+ */
+class DocModel(
+    val title: String?,
+    val text: String?,
+    private val tags: Map<String, List<DocTag>>,
+    val params: Map<String, String>
+) {
+
+    companion object {
+
+        /**
+         * 无文档注释
+         */
+        @JvmField
+        val EMPTY = DocModel(null, null, emptyMap(), emptyMap())
+    }
+
+    /**
+     * 获取第一个同名标记
+     */
+    fun findTag(tagName: String): DocTag? {
+        return tags[tagName]?.firstOrNull()
+    }
+
+    /**
+     * 获取所有同名标记
+     */
+    fun findTags(tagName: String): List<DocTag> {
+        return tags[tagName].orEmpty()
+    }
+
+    /**
+     * 是否存在标记
+     */
+    fun hasTag(tagName: String): Boolean {
+        return tags.containsKey(tagName)
+    }
+}
+
+/**
+ * 解析后的文档标记
+ * @param subject 标记的第一个值, 如 @see 的类名
+ * @param content 标记文本值
+ * @param text 标记内容, 参考 IPsiDocCommentHelper.getDocCommentTagText()
+ */
+class DocTag(
+    val subject: String?,
+    val content: String?,
+    val text: String?
+)
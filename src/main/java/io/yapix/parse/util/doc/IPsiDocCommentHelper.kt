@@ -8,6 +8,13 @@ import io.yapix.parse.constant.DocumentTags
  */
 interface IPsiDocCommentHelper {
 
+    /**
+     * 解析文档注释: 标题/内容/标记等
+     * @param element 文档元素
+     * @return 无文档注释时返回 DocModel.EMPTY
+     */
+    fun parseDocModel(element: PsiDocCommentOwner): DocModel
+
     /**
      * 获取@param标记的字段名+字段描述
      * @param element 文档元素，一般指方法
@@ -17,14 +17,34 @@ import java.util.*
  */
 object JavaPsiDocCommentHelper : IPsiDocCommentHelper {
 
+    /**
+     * 解析文档注释: 标题/内容/标记等
+     */
+    override fun parseDocModel(element: PsiDocCommentOwner): DocModel {
+        val comment = element.docComment ?: return DocModel.EMPTY
+        val tags = comment.tags.groupBy({ it.name }) { tag ->
+            val text = if (tag.valueElement != null) tag.dataElements.joinToString { e -> e.text.trim() } else null
+            DocTag(tag.dataElements.firstOrNull()?.text?.trim(), tag.content(), text)
+        }
+        return DocModel(getDocCommentTitle(element), comment.text, tags, getParamTagTextMap(comment.findTagsByName(DocumentTags.Param)))
+    }
+
     /**
      * 获取@param标记的字段名+字段描述
      * @param element 文档元素，一般指方法
      * @return Map<字段名, 字段描述>
      */
     override fun getParamTagTextMap(element: PsiDocCommentOwner): Map<String, String> {
+        return getParamTagTextMap(findTagsByName(element, DocumentTags.Param))
+    }
+
+    /**
+     * 获取@param标记的字段名+字段描述
+     * @param tags @param标记
+     * @return Map<字段名, 字段描述>
+     */
+    private fun getParamTagTextMap(tags: Array<PsiDocTag>): Map<String, String> {
         val map: MutableMap<String, String> = HashMap()
-        val tags = findTagsByName(element, DocumentTags.Param)
         for (tag in tags) {
             val elements = tag.dataElements
             if (elements.size >= 2) {
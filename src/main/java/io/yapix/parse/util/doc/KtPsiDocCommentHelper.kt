@@ -5,6 +5,7 @@ import com.intellij.psi.PsiElement
 import com.intellij.psi.impl.source.tree.LeafPsiElement
 import com.intellij.psi.javadoc.PsiDocToken
 import com.intellij.psi.javadoc.PsiInlineDocTag
+import com.intellij.psi.util.PsiTreeUtil
 import io.yapix.parse.constant.DocumentTags
 import net.jkcode.jkutil.common.substringBetween
 import org.jetbrains.kotlin.kdoc.psi.impl.KDocTag
@@ -16,14 +17,36 @@ import java.util.*
  */
 object KtPsiDocCommentHelper: IPsiDocCommentHelper {
 
+    /**
+     * 解析文档注释: 标题/内容/标记等
+     */
+    override fun parseDocModel(element: PsiDocCommentOwner): DocModel {
+        val comment = element.findKDoc() ?: return DocModel.EMPTY
+        val allTags = PsiTreeUtil.getChildrenOfTypeAsList(comment, KDocTag::class.java)
+        val tags = allTags.filter { it.name != null }.groupBy({ it.name!! }) { tag ->
+            val subject = tag.getSubjectName()
+            DocTag(subject, tag.getContent(), if (subject != null) subject + tag.getContent() else null)
+        }
+        val params = getParamTagTextMap(allTags.filter { it.name == DocumentTags.Param })
+        return DocModel(getDocCommentTitle(element), comment.getContent(), tags, params)
+    }
+
     /**
      * 获取@param标记的字段名+字段描述
      * @param element 文档元素，一般指方法
      * @return Map<字段名, 字段描述>
      */
     override fun getParamTagTextMap(element: PsiDocCommentOwner): Map<String, String> {
+        return getParamTagTextMap(findTagsByName(element, DocumentTags.Param))
+    }
+
+    /**
+     * 获取@param标记的字段名+字段描述
+     * @param tags @param标记
+     * @return Map<字段名, 字段描述>
+     */
+    private fun getParamTagTextMap(tags: List<KDocTag>): Map<String, String> {
         val map: MutableMap<String, String> = HashMap()
-        val tags = findTagsByName(element, DocumentTags.Param)
         for (tag in tags) {
             val name = tag.getSubjectName() // 参数名
             val description = tag.getContent() // 参数描述
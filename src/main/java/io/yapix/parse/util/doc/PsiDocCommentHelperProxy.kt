@@ -1,9 +1,13 @@
 package io.yapix.parse.util.doc
 
 import com.intellij.psi.PsiDocCommentOwner
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
 
 /**
  * PsiDocComment相关工具类
+ *    文档注释只解析一次为 DocModel 并缓存在元素上, 各方法都读取该模型
  */
 object PsiDocCommentHelperProxy: IPsiDocCommentHelper {
 
@@ -25,13 +29,29 @@ object PsiDocCommentHelperProxy: IPsiDocCommentHelper {
         return if(isKtPsiInst(element)) KtPsiDocCommentHelper else JavaPsiDocCommentHelper
     }
 
+    /**
+     * 获得解析后的文档注释, psi变化后重新解析
+     */
+    fun getDocModel(element: PsiDocCommentOwner): DocModel {
+        return CachedValuesManager.getCachedValue(element) {
+            CachedValueProvider.Result.create(parseDocModel(element), PsiModificationTracker.MODIFICATION_COUNT)
+        }
+    }
+
+    /**
+     * 解析文档注释
+     */
+    override fun parseDocModel(element: PsiDocCommentOwner): DocModel {
+        return getTargetHelper(element).parseDocModel(element)
+    }
+
     /**
      * 获取@param标记的字段名+字段描述
      * @param element 文档元素，一般指方法
      * @return Map<字段名, 字段描述>
      */
     override fun getParamTagTextMap(element: PsiDocCommentOwner): Map<String, String> {
-        return getTargetHelper(element).getParamTagTextMap(element)
+        return getDocModel(element).params
     }
 
     /**
@@ -48,42 +68,42 @@ object PsiDocCommentHelperProxy: IPsiDocCommentHelper {
      * 至于如何区分field1,field2,field3隶属于哪个实现类, 是用户写desc需要考量的, 而非插件程序逻辑.
      */
     override fun getTagTextSet(element: PsiDocCommentOwner, tag: String): Set<String> {
-        return getTargetHelper(element).getTagTextSet(element, tag)
+        return getDocModel(element).findTags(tag).mapNotNull { it.subject }.toSet()
     }
 
     /**
      * 获取标记文本值
      */
     override fun getTagText(element: PsiDocCommentOwner, tagName: String): String? {
-        return getTargetHelper(element).getTagText(element, tagName)
+        return getDocModel(element).findTag(tagName)?.content
     }
 
     /**
      * 获取文档标记内容
      */
     override fun getDocCommentTagText(element: PsiDocCommentOwner, tagName: String): String? {
-        return getTargetHelper(element).getDocCommentTagText(element, tagName)
+        return getDocModel(element).findTag(tagName)?.text
     }
 
     /**
      * 获取文档标题行: 文档第一行
      */
     override fun getDocCommentTitle(element: PsiDocCommentOwner): String? {
-        return getTargetHelper(element).getDocCommentTitle(element)
+        return getDocModel(element).title
     }
 
     /**
      * 获取文档内容
      */
     override fun getDocCommentText(element: PsiDocCommentOwner): String?{
-        return getTargetHelper(element).getDocCommentText(element)
+        return getDocModel(element).text
     }
 
     /**
      * 检查是否存在文档注释上的标记
      */
     override fun hasTagByName(element: PsiDocCommentOwner, tagName: String): Boolean {
-        return getTargetHelper(element).hasTagByName(element, tagName)
+        return getDocModel(element).hasTag(tagName)
     }
 
     /**
@@ -6,6 +6,7 @@ import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.project.Project;
 import io.yapix.action.AbstractAction;
+import io.yapix.action.ApiUploadHandler;
 import io.yapix.action.ApiUploadResult;
 import io.yapix.base.sdk.eolinker.AbstractClient.HttpSession;
 import io.yapix.base.sdk.eolinker.EolinkerClient;
@@ -17,6 +18,7 @@ import io.yapix.process.eolinker.config.EolinkerSettings;
 import io.yapix.process.eolinker.config.EolinkerSettingsDialog;
 import io.yapix.process.eolinker.process.EolinkerUploader;
 import java.util.List;
+import java.util.Objects;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -46,8 +48,17 @@ public class EolinkerUploadAction extends AbstractAction {
 
     @Override
     public void handle(AnActionEvent event, YapixConfig config, List<Api> apis) {
-        String projectId = config.getEolinkerProjectId();
         Project project = event.getData(CommonDataKeys.PROJECT);
+        ApiUploadHandler uploadHandler = createUploadHandler(event, config);
+        super.handleUploadAsync(project, apis, uploadHandler.getApiConsumer(), uploadHandler.getAfterAction());
+    }
+
+    /**
+     * 创建上传处理器: 解析出的接口逐个上传
+     */
+    @Override
+    protected ApiUploadHandler createUploadHandler(AnActionEvent event, YapixConfig config) {
+        String projectId = config.getEolinkerProjectId();
 
         EolinkerSettings settings = EolinkerSettings.getInstance();
         HttpSession session = new HttpSession(settings.getCookies(), settings.getCookiesTtl(),
@@ -56,18 +67,19 @@ public class EolinkerUploadAction extends AbstractAction {
                 settings.getAccount(), settings.getPassword(), session);
         EolinkerUploader uploader = new EolinkerUploader(client);
 
-        super.handleUploadAsync(project, apis,
+        return new ApiUploadHandler(
                 api -> {
                     EolinkerApiInfo eapi = uploader.upload(projectId, api);
 
                     ApiUploadResult result = new ApiUploadResult();
                     result.setCategoryUrl(client.calculateApiListUrl(projectId, eapi.getBaseInfo().getGroupID()));
                     result.setApiUrl(result.getCategoryUrl());
+                    result.setRemoteId(Objects.toString(eapi.getBaseInfo().getApiID(), null));
                     return result;
                 }, () -> {
                     client.close();
                     return null;
-                });
+                }, "eolinker:" + settings.getUrl() + ":" + projectId);
     }
 
     @Override
@@ -26,7 +26,7 @@ class JksoaPhpMappingAction : AnAction() {
         if(data.selectedClass != null) // 1 选中类
             psiClasses = listOf(data.selectedClass)
         else // 2 批量： 选中多个包或文件
-            psiClasses = PsiFileUtils.getPsiClassByFile(data.selectedClassFiles){ psiClass ->
+            psiClasses = PsiFileUtils.getPsiClassByFile(data.resolveSelectedClassFiles()){ psiClass ->
                 isServiceClass(psiClass)
             }
 
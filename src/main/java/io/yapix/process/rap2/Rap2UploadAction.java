@@ -6,6 +6,7 @@ import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.project.Project;
 import io.yapix.action.AbstractAction;
+import io.yapix.action.ApiUploadHandler;
 import io.yapix.action.ApiUploadResult;
 import io.yapix.base.sdk.rap2.Rap2Client;
 import io.yapix.base.sdk.rap2.model.Rap2Interface;
@@ -17,6 +18,7 @@ import io.yapix.process.rap2.config.Rap2Settings;
 import io.yapix.process.rap2.config.Rap2SettingsDialog;
 import io.yapix.process.rap2.process.Rap2Uploader;
 import java.util.List;
+import java.util.Objects;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -46,8 +48,17 @@ public class Rap2UploadAction extends AbstractAction {
 
     @Override
     public void handle(AnActionEvent event, YapixConfig config, List<Api> apis) {
-        Integer projectId = Integer.valueOf(config.getRap2ProjectId());
         Project project = event.getData(CommonDataKeys.PROJECT);
+        ApiUploadHandler uploadHandler = createUploadHandler(event, config);
+        super.handleUploadAsync(project, apis, uploadHandler.getApiConsumer(), uploadHandler.getAfterAction());
+    }
+
+    /**
+     * 创建上传处理器: 解析出的接口逐个上传
+     */
+    @Override
+    protected ApiUploadHandler createUploadHandler(AnActionEvent event, YapixConfig config) {
+        Integer projectId = Integer.valueOf(config.getRap2ProjectId());
 
         Rap2Settings settings = Rap2Settings.getInstance();
         Rap2Client client = new Rap2Client(settings.getUrl(), settings.getAccount(), settings.getPassword(),
@@ -55,7 +66,7 @@ public class Rap2UploadAction extends AbstractAction {
         Rap2Uploader uploader = new Rap2Uploader(client);
         Rap2WebUrlCalculator urlCalculator = new Rap2WebUrlCalculator(settings.getWebUrl());
 
-        super.handleUploadAsync(project, apis,
+        return new ApiUploadHandler(
                 api -> {
                     Rap2Interface rapi = uploader.upload(projectId, api);
 
@@ -66,11 +77,12 @@ public class Rap2UploadAction extends AbstractAction {
                     result.setCategoryUrl(
                             urlCalculator.calculateEditorUrl(rapi.getRepositoryId(), rapi.getModuleId(), null)
                     );
+                    result.setRemoteId(Objects.toString(rapi.getId(), null));
                     return result;
                 }, () -> {
                     client.close();
                     return null;
-                });
+                }, "rap2:" + settings.getUrl() + ":" + projectId);
     }
 
 
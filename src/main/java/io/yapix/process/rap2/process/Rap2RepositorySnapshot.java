@@ -0,0 +1,150 @@
+package io.yapix.process.rap2.process;
+
+import io.yapix.base.sdk.rap2.Rap2Client;
+import io.yapix.base.sdk.rap2.model.Rap2InterfaceBase;
+import io.yapix.base.sdk.rap2.model.Rap2Module;
+import io.yapix.base.sdk.rap2.model.Rap2Repository;
+import io.yapix.base.sdk.rap2.request.ModuleCreateRequest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rap2仓库快照
+ *    作用域: 一次上传, 被所有上传线程共享
+ *    仓库(含所有模块及其接口列表)只拉取一次, 模块按名字索引, 模块下的接口按 name+url+method, url+method, name 建立hash索引;
+ *    创建模块/接口, 更新接口后同步更新快照, 以便后续的接口直接命中
+ */
+public class Rap2RepositorySnapshot {
+
+    private final Rap2Client client;
+
+    private final long repositoryId;
+
+    /**
+     * 模块名 -> 模块下的接口索引
+     */
+    private final Map<String, ModuleIndex> modules = new ConcurrentHashMap<>();
+
+    private boolean loaded;
+
+    public Rap2RepositorySnapshot(Rap2Client client, long repositoryId) {
+        this.client = client;
+        this.repositoryId = repositoryId;
+    }
+
+    /**
+     * 获取或创建模块
+     */
+    public Rap2Module getOrCreateModule(String name) {
+        load();
+        return modules.computeIfAbsent(name, key -> {
+            ModuleCreateRequest create = new ModuleCreateRequest();
+            create.setRepositoryId(repositoryId);
+            create.setName(key);
+            return new ModuleIndex(client.createModule(create));
+        }).module;
+    }
+
+    /**
+     * 查找模块下已存在的接口
+     *    匹配优先级: name + url + method > url + method > name
+     */
+    public Rap2InterfaceBase findInterface(Rap2Module module, Rap2InterfaceBase rapApi) {
+        ModuleIndex index = modules.get(module.getName());
+        return index != null ? index.find(rapApi.getName(), rapApi.getUrl(), rapApi.getMethod()) : null;
+    }
+
+    /**
+     * 创建或更新接口后更新快照
+     */
+    public void put(Rap2Module module, Rap2InterfaceBase rapApi) {
+        ModuleIndex index = modules.get(module.getName());
+        if (index != null && rapApi.getId() != null) {
+            index.put(rapApi);
+        }
+    }
+
+    /**
+     * 拉取仓库, 只拉取一次
+     */
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        Rap2Repository repository = client.getRepository(repositoryId);
+        if (repository != null && repository.getModules() != null) {
+            for (Rap2Module module : repository.getModules()) {
+                // 同名取列表中在前的, 与原来按列表顺序查找一致
+                modules.putIfAbsent(module.getName(), new ModuleIndex(module));
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * 单个模块下的接口索引
+     */
+    private static class ModuleIndex {
+
+        private final Rap2Module module;
+
+        private final Map<Long, Rap2InterfaceBase> byId = new HashMap<>();
+
+        private final Map<List<String>, Rap2InterfaceBase> byNameUrlMethod = new HashMap<>();
+
+        private final Map<List<String>, Rap2InterfaceBase> byUrlMethod = new HashMap<>();
+
+        private final Map<String, Rap2InterfaceBase> byName = new HashMap<>();
+
+        ModuleIndex(Rap2Module module) {
+            this.module = module;
+            if (module.getInterfaces() != null) {
+                for (Rap2InterfaceBase item : module.getInterfaces()) {
+                    add(item, false);
+                }
+            }
+        }
+
+        synchronized Rap2InterfaceBase find(String name, String url, String method) {
+            Rap2InterfaceBase item = byNameUrlMethod.get(Arrays.asList(name, url, method));
+            if (item == null) {
+                item = byUrlMethod.get(Arrays.asList(url, method));
+            }
+            if (item == null) {
+                item = byName.get(name);
+            }
+            return item;
+        }
+
+        /**
+         * 保存的接口: 先移除旧的索引(如标题变了), 再覆盖
+         */
+        synchronized void put(Rap2InterfaceBase item) {
+            Rap2InterfaceBase old = byId.get(item.getId());
+            if (old != null) {
+                byNameUrlMethod.remove(Arrays.asList(old.getName(), old.getUrl(), old.getMethod()), old);
+                byUrlMethod.remove(Arrays.asList(old.getUrl(), old.getMethod()), old);
+                byName.remove(old.getName(), old);
+            }
+            add(item, true);
+        }
+
+        private void add(Rap2InterfaceBase item, boolean override) {
+            if (item.getId() != null) {
+                byId.put(item.getId(), item);
+            }
+            if (override) {
+                byNameUrlMethod.put(Arrays.asList(item.getName(), item.getUrl(), item.getMethod()), item);
+                byUrlMethod.put(Arrays.asList(item.getUrl(), item.getMethod()), item);
+                byName.put(item.getName(), item);
+            } else {
+                byNameUrlMethod.putIfAbsent(Arrays.asList(item.getName(), item.getUrl(), item.getMethod()), item);
+                byUrlMethod.putIfAbsent(Arrays.asList(item.getUrl(), item.getMethod()), item);
+                byName.putIfAbsent(item.getName(), item);
+            }
+        }
+    }
+}
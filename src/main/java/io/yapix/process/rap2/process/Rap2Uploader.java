@@ -7,19 +7,14 @@ import io.yapix.base.sdk.rap2.model.Rap2Interface;
 import io.yapix.base.sdk.rap2.model.Rap2InterfaceBase;
 import io.yapix.base.sdk.rap2.model.Rap2Module;
 import io.yapix.base.sdk.rap2.model.Rap2Property;
-import io.yapix.base.sdk.rap2.model.Rap2Repository;
 import io.yapix.base.sdk.rap2.request.InterfacePropertiesUpdateRequest;
 import io.yapix.base.sdk.rap2.request.InterfacePropertiesUpdateRequest.Summary;
 import io.yapix.base.sdk.rap2.request.InterfaceUpdateRequest;
-import io.yapix.base.sdk.rap2.request.ModuleCreateRequest;
 import io.yapix.model.Api;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import org.apache.commons.collections.CollectionUtils;
 
 /**
  * Rap2上传
@@ -29,7 +24,11 @@ import org.apache.commons.collections.CollectionUtils;
 public class Rap2Uploader {
 
     private final Rap2Client client;
-    private final Map<String, Rap2Module> moduleCache = new ConcurrentHashMap<>();
+
+    /**
+     * 仓库id -> 仓库快照
+     */
+    private final Map<Long, Rap2RepositorySnapshot> snapshots = new ConcurrentHashMap<>();
 
     public Rap2Uploader(Rap2Client client) {
         this.client = client;
@@ -40,12 +39,13 @@ public class Rap2Uploader {
         rapApi.setRepositoryId(repositoryId);
 
         // 模块
-        Rap2Repository repository = client.getRepository(repositoryId);
-        Rap2Module module = getOrCreateModule(repository, api.getCategory());
+        Rap2RepositorySnapshot snapshot = snapshots.computeIfAbsent(repositoryId,
+                id -> new Rap2RepositorySnapshot(client, id));
+        Rap2Module module = snapshot.getOrCreateModule(api.getCategory());
         rapApi.setModuleId(module.getId());
 
         // 接口基本信息
-        Rap2InterfaceBase originRapApi = findInterface(module, rapApi);
+        Rap2InterfaceBase originRapApi = snapshot.findInterface(module, rapApi);
         boolean isModify = true;
         if (originRapApi != null) {
             Rap2Interface theOriginApi = client.getInterface(originRapApi.getId());
@@ -53,9 +53,11 @@ public class Rap2Uploader {
             if (isModify) {
                 InterfaceUpdateRequest request = doConvertUpdateInterfaceRequest(rapApi, originRapApi);
                 client.updateInterface(request);
+                snapshot.put(module, doConvertUpdatedInterface(request, originRapApi));
             }
         } else {
             originRapApi = client.createInterface(rapApi);
+            snapshot.put(module, originRapApi);
         }
         rapApi.setId(originRapApi.getId());
         rapApi.setRepositoryId(originRapApi.getRepositoryId());
@@ -78,56 +80,6 @@ public class Rap2Uploader {
         return rapApi;
     }
 
-    /**
-     * 获取或创建模块
-     */
-    private Rap2Module getOrCreateModule(Rap2Repository repository, String category) {
-        return moduleCache.computeIfAbsent(category, key -> {
-            Rap2Module module = repository.getModules().stream().filter(m -> m.getName().equals(category)).findFirst()
-                    .orElse(null);
-            if (module != null) {
-                return module;
-            }
-            ModuleCreateRequest create = new ModuleCreateRequest();
-            create.setRepositoryId(repository.getId());
-            create.setName(category);
-            return client.createModule(create);
-        });
-    }
-
-    /**
-     * 获取原接口信息
-     */
-    private Rap2InterfaceBase findInterface(Rap2Module module, Rap2Interface rapApi) {
-        if (CollectionUtils.isEmpty(module.getInterfaces())) {
-            return null;
-        }
-        // 比较条件: 接口标题， 路径，请求方式
-        Optional<Rap2InterfaceBase> interfaceOpt = module.getInterfaces().stream()
-                .filter(item -> Objects.equals(item.getName(), rapApi.getName())
-                        && Objects.equals(item.getUrl(), rapApi.getUrl())
-                        && Objects.equals(item.getMethod(), rapApi.getMethod()))
-                .findFirst();
-        if (interfaceOpt.isPresent()) {
-            return interfaceOpt.get();
-        }
-
-        // 比较条件: 路径，请求方式
-        interfaceOpt = module.getInterfaces().stream()
-                .filter(item -> Objects.equals(item.getUrl(), rapApi.getUrl())
-                        && Objects.equals(item.getMethod(), rapApi.getMethod()))
-                .findFirst();
-        if (interfaceOpt.isPresent()) {
-            return interfaceOpt.get();
-        }
-
-        // 比较条件: 标题
-        interfaceOpt = module.getInterfaces().stream()
-                .filter(item -> Objects.equals(item.getName(), rapApi.getName()))
-                .findFirst();
-        return interfaceOpt.orElse(null);
-    }
-
     private InterfaceUpdateRequest doConvertUpdateInterfaceRequest(Rap2Interface rapApi,
             Rap2InterfaceBase originRapApi) {
         InterfaceUpdateRequest request = new InterfaceUpdateRequest();
@@ -140,4 +92,19 @@ public class Rap2Uploader {
         return request;
     }
 
+    /**
+     * 更新后的接口基本信息, 用于更新快照
+     */
+    private Rap2InterfaceBase doConvertUpdatedInterface(InterfaceUpdateRequest request,
+            Rap2InterfaceBase originRapApi) {
+        Rap2InterfaceBase updated = new Rap2InterfaceBase();
+        updated.setId(originRapApi.getId());
+        updated.setModuleId(originRapApi.getModuleId());
+        updated.setRepositoryId(originRapApi.getRepositoryId());
+        updated.setName(request.getName());
+        updated.setUrl(request.getUrl());
+        updated.setMethod(request.getMethod());
+        return updated;
+    }
+
 }
@@ -6,6 +6,7 @@ import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.project.Project;
 import io.yapix.action.AbstractAction;
+import io.yapix.action.ApiUploadHandler;
 import io.yapix.action.ApiUploadResult;
 import io.yapix.base.sdk.showdoc.ShowdocClient;
 import io.yapix.base.sdk.showdoc.model.ShowdocTestResult.Code;
@@ -45,26 +46,36 @@ public class ShowdocUploadAction extends AbstractAction {
 
     @Override
     public void handle(AnActionEvent event, YapixConfig config, List<Api> apis) {
-        String projectId = config.getShowdocProjectId();
         Project project = event.getData(CommonDataKeys.PROJECT);
+        ApiUploadHandler uploadHandler = createUploadHandler(event, config);
+        super.handleUploadAsync(project, apis, uploadHandler.getApiConsumer(), uploadHandler.getAfterAction());
+    }
+
+    /**
+     * 创建上传处理器: 解析出的接口逐个上传
+     */
+    @Override
+    protected ApiUploadHandler createUploadHandler(AnActionEvent event, YapixConfig config) {
+        String projectId = config.getShowdocProjectId();
 
         ShowdocSettings settings = ShowdocSettings.getInstance();
         ShowdocClient client = new ShowdocClient(settings.getUrl(), settings.getAccount(), settings.getPassword(),
                 settings.getCookies(), settings.getCookiesTtl());
         ShowdocUploader uploader = new ShowdocUploader(client);
 
-        super.handleUploadAsync(project, apis,
+        return new ApiUploadHandler(
                 api -> {
                     ShowdocUpdateResponse sapi = uploader.upload(projectId, api);
 
                     ApiUploadResult result = new ApiUploadResult();
                     result.setApiUrl(client.calculateWebUrl(sapi.getItemId(), sapi.getPageId()));
                     result.setCategoryUrl(client.calculateWebUrl(sapi.getItemId(), null));
+                    result.setRemoteId(sapi.getPageId());
                     return result;
                 }, () -> {
                     client.close();
                     return null;
-                });
+                }, "showdoc:" + settings.getUrl() + ":" + projectId);
     }
 
     @Override
@@ -1,21 +1,35 @@
 package io.yapix.process.yapi;
 
 import static io.yapix.base.util.NotificationUtils.notifyError;
+import static io.yapix.base.util.NotificationUtils.notifyInfo;
+import static io.yapix.base.util.NotificationUtils.notifyWarning;
+import static java.lang.String.format;
 
+import com.google.common.collect.Lists;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import io.yapix.action.AbstractAction;
+import io.yapix.action.ApiUploadHandler;
 import io.yapix.action.ApiUploadResult;
 import io.yapix.base.sdk.yapi.YapiClient;
+import io.yapix.base.sdk.yapi.YapiException;
 import io.yapix.base.sdk.yapi.model.YapiInterface;
 import io.yapix.base.sdk.yapi.response.YapiTestResult.Code;
+import io.yapix.config.DefaultConstants;
+import io.yapix.config.UploadFingerprintStore;
 import io.yapix.config.YapixConfig;
 import io.yapix.model.Api;
 import io.yapix.process.yapi.config.YapiSettings;
 import io.yapix.process.yapi.config.YapiSettingsDialog;
+import io.yapix.process.yapi.process.YapiBulkImporter;
 import io.yapix.process.yapi.process.YapiUploader;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -37,6 +51,17 @@ public class YapiUploadAction extends AbstractAction {
             notifyError("Config file error", "yapiUrl must not be empty, when you config yapiProjectToken.");
             return false;
         }
+        String importMode = config.getYapiImportMode();
+        if (StringUtils.isNotEmpty(importMode)) {
+            if (!YapiBulkImporter.MERGE_MODES.contains(importMode)) {
+                notifyError("Config file error", "yapiImportMode must be one of " + YapiBulkImporter.MERGE_MODES);
+                return false;
+            }
+            if (StringUtils.isEmpty(config.getYapiProjectToken())) {
+                notifyWarning(DefaultConstants.NAME,
+                        "yapiImportMode requires yapiProjectToken, fall back to uploading apis one by one.");
+            }
+        }
         if (StringUtils.isNotEmpty(config.getYapiProjectToken())) {
             return true;
         }
@@ -60,8 +85,90 @@ public class YapiUploadAction extends AbstractAction {
      */
     @Override
     public void handle(AnActionEvent event, YapixConfig config, List<Api> apis) {
-        Integer projectId = Integer.valueOf(config.getYapiProjectId());
         Project project = event.getData(CommonDataKeys.PROJECT);
+        if (isBulkImport(config)) {
+            importAsync(project, config, apis);
+            return;
+        }
+        ApiUploadHandler uploadHandler = createUploadHandler(event, config);
+        super.handleUploadAsync(project, apis, uploadHandler.getApiConsumer(), uploadHandler.getAfterAction());
+    }
+
+    /**
+     * 是否批量导入: 配置了合并模式及项目token
+     */
+    private boolean isBulkImport(YapixConfig config) {
+        return StringUtils.isNotEmpty(config.getYapiImportMode()) && StringUtils.isNotEmpty(config.getYapiProjectToken());
+    }
+
+    /**
+     * 批量导入: 解析完后分批导入, 每批一次请求
+     */
+    private void importAsync(Project project, YapixConfig config, List<Api> apis) {
+        Integer projectId = Integer.valueOf(config.getYapiProjectId());
+        YapiClient client = createClient(config, YapiSettings.getInstance());
+        YapiBulkImporter importer = new YapiBulkImporter(client);
+        String target = getTarget(config, YapiSettings.getInstance(), projectId);
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, DefaultConstants.NAME, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                // 增量上传: 跳过未变化的接口, 导入成功后记录指纹
+                UploadFingerprintStore fingerprintStore = config.isIncremental()
+                        ? UploadFingerprintStore.getInstance(project) : null;
+                // normal模式不更新已存在的接口, 导入成功也不代表已同步, 不能记录指纹
+                boolean recordable = YapiBulkImporter.isOverwrite(config.getYapiImportMode());
+                Map<Api, String> changedApis = new LinkedHashMap<>();
+                for (Api api : apis) {
+                    String fingerprint = fingerprintStore != null ? UploadFingerprintStore.fingerprint(api) : null;
+                    if (fingerprint == null || !fingerprintStore.isUnchanged(target, api, fingerprint, config.getLedgerVerifyDays())) {
+                        changedApis.put(api, fingerprint);
+                    }
+                }
+                int skipCount = apis.size() - changedApis.size();
+
+                List<Api> importApis = Lists.newArrayList(changedApis.keySet());
+                List<List<Api>> chunks = Lists.partition(importApis, YapiBulkImporter.CHUNK_SIZE);
+                int importCount = 0;
+                indicator.setIndeterminate(false);
+                try {
+                    for (int i = 0; i < chunks.size(); i++) {
+                        indicator.checkCanceled();
+                        indicator.setText(format("[%d/%d] Importing %d apis", i + 1, chunks.size(), chunks.get(i).size()));
+                        indicator.setFraction((double) i / chunks.size());
+                        importer.importApis(projectId, chunks.get(i), config.getYapiImportMode());
+                        importCount += chunks.get(i).size();
+                        if (fingerprintStore != null && recordable) {
+                            for (Api api : chunks.get(i)) {
+                                fingerprintStore.record(target, api, changedApis.get(api), null);
+                            }
+                        }
+                    }
+                } catch (YapiException e) {
+                    notifyError("Import failed", e.getMessage());
+                } finally {
+                    if (importCount > 0) {
+                        String url = client.calculateProjectUrl(projectId);
+                        notifyInfo("Upload successful", format("Imported %d apis: <a href=\"%s\">%s</a>", importCount, url, url));
+                    }
+                    if (skipCount > 0) {
+                        notifyInfo(DefaultConstants.NAME, format("Skipped %d unchanged apis", skipCount));
+                    }
+                    client.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * 创建上传处理器: 解析出的接口逐个上传
+     *    批量导入时返回null, 解析完后再调用 handle()
+     */
+    @Override
+    protected ApiUploadHandler createUploadHandler(AnActionEvent event, YapixConfig config) {
+        if (isBulkImport(config)) {
+            return null;
+        }
+        Integer projectId = Integer.valueOf(config.getYapiProjectId());
 
         // 配置
         YapiSettings settings = YapiSettings.getInstance();
@@ -70,16 +177,25 @@ public class YapiUploadAction extends AbstractAction {
         // 上传器
         YapiUploader uploader = new YapiUploader(client);
 
+        // 上传目标: 用于增量上传
+        String target = getTarget(config, settings, projectId);
+        // 上传台账: 记录了远程id的接口, 直接按id获取, 无需查找
+        Project project = event.getData(CommonDataKeys.PROJECT);
+        UploadFingerprintStore ledger = config.isIncremental() && project != null
+                ? UploadFingerprintStore.getInstance(project) : null;
+
         // 异步上传api信息
-        super.handleUploadAsync(project, apis,
+        return new ApiUploadHandler(
                 api -> {
                     // 上传
-                    YapiInterface yapi = uploader.upload(projectId, api);
+                    String remoteId = ledger != null ? ledger.getRemoteId(target, api) : null;
+                    YapiInterface yapi = uploader.upload(projectId, api, remoteId);
 
                     ApiUploadResult result = new ApiUploadResult();
                     result.setCategoryUrl(client.calculateCatUrl(projectId, yapi.getCatid()));
                     if (yapi.getId() != null) {
                         result.setApiUrl(client.calculateInterfaceUrl(projectId, yapi.getId()));
+                        result.setRemoteId(String.valueOf(yapi.getId()));
                     } else {
                         result.setApiUrl(result.getCategoryUrl());
                     }
@@ -87,7 +203,15 @@ public class YapiUploadAction extends AbstractAction {
                 }, () -> {
                     client.close();
                     return null;
-                });
+                }, target);
+    }
+
+    /**
+     * 上传目标: 服务地址 + 项目, 用于增量上传
+     */
+    private String getTarget(YapixConfig config, YapiSettings settings, Integer projectId) {
+        String url = StringUtils.isNotEmpty(config.getYapiProjectToken()) ? config.getYapiUrl() : settings.getUrl();
+        return "yapi:" + url + ":" + projectId;
     }
 
     private YapiClient createClient(YapixConfig config, YapiSettings settings) {
@@ -0,0 +1,90 @@
+package io.yapix.process.yapi.process;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Iterables;
+import com.google.gson.Gson;
+import io.yapix.base.sdk.yapi.YapiClient;
+import io.yapix.base.sdk.yapi.model.YapiInterface;
+import io.yapix.model.Api;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Yapi批量导入
+ *    把接口按分类组装为yapi导出格式的json, 通过开放接口 import_data 导入, 每批接口一次请求
+ */
+public class YapiBulkImporter {
+
+    /**
+     * 每批导入的接口数
+     */
+    public static final int CHUNK_SIZE = 200;
+
+    /**
+     * 合并模式: 不覆盖, 智能合并, 完全覆盖
+     */
+    public static final List<String> MERGE_MODES = Arrays.asList("normal", "good", "merge");
+
+    /**
+     * 合并模式是否会更新已存在的接口: normal模式跳过已存在的接口
+     */
+    public static boolean isOverwrite(String merge) {
+        return "good".equals(merge) || "merge".equals(merge);
+    }
+
+    private final YapiClient client;
+
+    private final Gson gson = new Gson();
+
+    public YapiBulkImporter(YapiClient client) {
+        this.client = client;
+    }
+
+    /**
+     * 导入一批接口
+     *
+     * @param merge 合并模式, 参考 MERGE_MODES
+     */
+    public void importApis(Integer projectId, List<Api> apis, String merge) {
+        // 按分类分组, 保持接口顺序
+        Map<String, ImportCategory> categories = new LinkedHashMap<>();
+        for (Api api : apis) {
+            YapiInterface data = YapiDataConvector.convert(projectId, api);
+            String name = getCategoryName(data.getMenu());
+            categories.computeIfAbsent(name, ImportCategory::new).list.add(data);
+        }
+        client.importData(merge, gson.toJson(categories.values()));
+    }
+
+    /**
+     * 分类名: 与逐个上传一致, 多级菜单取最后一级
+     */
+    private static String getCategoryName(String menu) {
+        if (StringUtils.isEmpty(menu)) {
+            return menu;
+        }
+        Iterable<String> names = Splitter.on('/').omitEmptyStrings().split(menu);
+        return Iterables.getLast(names, menu);
+    }
+
+    /**
+     * 导入数据中的分类
+     */
+    private static class ImportCategory {
+
+        private final String name;
+
+        private final String desc;
+
+        private final List<YapiInterface> list = new ArrayList<>();
+
+        ImportCategory(String name) {
+            this.name = name;
+            this.desc = name;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.yapix.process.yapi.process;
+
+import com.google.common.base.Strings;
+import io.yapix.base.sdk.yapi.YapiClient;
+import io.yapix.base.sdk.yapi.YapiException;
+import io.yapix.base.sdk.yapi.model.YapiCategory;
+import io.yapix.base.sdk.yapi.model.YapiCategoryAddRequest;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * yapi项目的分类索引
+ *    作用域: 一次上传, 被所有上传线程共享
+ *    分类列表只拉取一次, 按分类名索引(yapi的分类是平铺的, 多级菜单的每一级都按名字匹配)
+ *    缺失的分类以single-flight方式创建: 同一分类的并发请求共享一次创建, 不同分类互不阻塞
+ */
+public class YapiCategoryIndex {
+
+    private final YapiClient client;
+
+    private final Integer projectId;
+
+    /**
+     * 分类名 -> 分类id
+     */
+    private final Map<String, CompletableFuture<Integer>> categories = new ConcurrentHashMap<>();
+
+    /**
+     * 菜单(多级分类, 如 a/b) -> 最后一级的分类id
+     */
+    private final Map<String, CompletableFuture<Integer>> menus = new ConcurrentHashMap<>();
+
+    /**
+     * 是否拉取分类列表成功, null表示未拉取
+     */
+    private Boolean loaded;
+
+    public YapiCategoryIndex(YapiClient client, Integer projectId) {
+        this.client = client;
+        this.projectId = projectId;
+    }
+
+    /**
+     * 获取或者创建菜单的分类
+     */
+    public Integer getCatIdOrCreate(String menu) {
+        return singleFlight(menus, menu, () -> resolveMenu(menu));
+    }
+
+    /**
+     * 循环多级菜单，判断是否存在，如果不存在就创建
+     */
+    private Integer resolveMenu(String menu) {
+        if (!loadCategories()) {
+            //出现这种情况可能是yapi 版本不支持
+            return addCategory(-1, menu);
+        }
+
+        Integer parentId = -1;
+        Integer catId = null;
+        try {
+            for (String name : menu.split("/")) {
+                if (Strings.isNullOrEmpty(name)) {
+                    continue;
+                }
+                Integer pid = parentId;
+                catId = singleFlight(categories, name, () -> addCategory(pid, name));
+                parentId = catId;
+            }
+        } catch (YapiException e) {
+            //出现这种情况可能是yapi 版本不支持, 整个菜单作为一个分类
+            catId = null;
+        }
+        if (catId == null) {
+            catId = addCategory(-1, menu);
+        }
+        return catId;
+    }
+
+    /**
+     * 拉取分类列表, 只拉取一次
+     */
+    private synchronized boolean loadCategories() {
+        if (loaded == null) {
+            try {
+                for (YapiCategory category : client.getCategories(projectId)) {
+                    // 同名取列表中在前的
+                    categories.putIfAbsent(category.getName(), CompletableFuture.completedFuture(category.getId()));
+                }
+                loaded = true;
+            } catch (YapiException e) {
+                loaded = false;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 创建分类
+     */
+    private Integer addCategory(Integer parentId, String menu) {
+        YapiCategoryAddRequest req = new YapiCategoryAddRequest(menu, projectId, parentId);
+        YapiCategory category = client.addCategory(req);
+        return category.getId();
+    }
+
+    /**
+     * 同一key只加载一次, 并发的调用方等待同一个结果
+     *    加载在map之外进行, 不阻塞其他key; 加载失败时移除, 以便下次重试
+     */
+    private static Integer singleFlight(Map<String, CompletableFuture<Integer>> map, String key,
+            Supplier<Integer> loader) {
+        CompletableFuture<Integer> future = map.get(key);
+        if (future == null) {
+            CompletableFuture<Integer> created = new CompletableFuture<>();
+            future = map.putIfAbsent(key, created);
+            if (future == null) {
+                future = created;
+                try {
+                    created.complete(loader.get());
+                } catch (RuntimeException e) {
+                    map.remove(key, created);
+                    created.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import io.yapix.model.ParameterIn;
 import io.yapix.model.Property;
 import io.yapix.model.RequestBodyType;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -121,7 +122,7 @@ public class YapiDataConvector {
         if (request == null) {
             return "";
         }
-        YapiProperty item = copyProperty(request);
+        YapiProperty item = copyProperty(request, new IdentityHashMap<>());
         return JsonUtils.toJson(item);
     }
 
@@ -133,14 +134,21 @@ public class YapiDataConvector {
         if (responses == null) {
             return "";
         }
-        YapiProperty property = copyProperty(responses);
+        YapiProperty property = copyProperty(responses, new IdentityHashMap<>());
         return JsonUtils.toJson(property);
     }
 
     /**
      * 复制Property为YapiProperty结构，包括子树
+     *
+     * @param copied 已复制的属性: 子树是共享的, 同一实例只复制一次
      */
-    private static YapiProperty copyProperty(Property property) {
+    private static YapiProperty copyProperty(Property property, Map<Property, YapiProperty> copied) {
+        YapiProperty cached = copied.get(property);
+        if (cached != null) {
+            return cached;
+        }
+
         YapiProperty yapiProperty = new YapiProperty();
         yapiProperty.setType(property.getType());
         yapiProperty.setDescription(property.getDescription());
@@ -164,7 +172,7 @@ public class YapiDataConvector {
             yapiProperty.setUniqueItems(property.getUniqueItems());
             yapiProperty.setMinItems(property.getMinItems());
             yapiProperty.setMaxItems(property.getMaxItems());
-            yapiProperty.setItems(copyProperty(property.getItems()));
+            yapiProperty.setItems(copyProperty(property.getItems(), copied));
         }
         // 对象
         if (property.getProperties() != null) {
@@ -175,11 +183,12 @@ public class YapiDataConvector {
                 if (value.getRequired()) {
                     required.add(key);
                 }
-                yapiProperties.put(key, copyProperty(value));
+                yapiProperties.put(key, copyProperty(value, copied));
             }
             yapiProperty.setProperties(yapiProperties);
         }
 
+        copied.put(property, yapiProperty);
         return yapiProperty;
     }
 
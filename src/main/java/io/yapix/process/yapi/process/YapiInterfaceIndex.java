@@ -0,0 +1,156 @@
+package io.yapix.process.yapi.process;
+
+import io.yapix.base.sdk.yapi.YapiClient;
+import io.yapix.base.sdk.yapi.model.InterfaceVo;
+import io.yapix.base.sdk.yapi.model.YapiInterface;
+import io.yapix.base.sdk.yapi.model.YapiListInterfaceResponse;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * yapi分类下的接口索引
+ *    作用域: 一次上传, 被所有上传线程共享
+ *    每个分类只拉取一次接口列表(分页拉取全部), 按 title+path+method, path+method, title 建立hash索引;
+ *    保存接口后更新索引, 以便后续的接口直接命中
+ */
+public class YapiInterfaceIndex {
+
+    /**
+     * 每页拉取的接口数
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    private final YapiClient client;
+
+    /**
+     * 分类id -> 分类下的接口索引
+     */
+    private final Map<Integer, CategoryIndex> categories = new ConcurrentHashMap<>();
+
+    public YapiInterfaceIndex(YapiClient client) {
+        this.client = client;
+    }
+
+    /**
+     * 查找已存在的接口
+     *    匹配优先级: title + path + method > path + method > title
+     */
+    public InterfaceVo find(YapiInterface api) {
+        return getCategory(api.getCatid()).find(api.getTitle(), api.getPath(), api.getMethod());
+    }
+
+    /**
+     * 保存接口后更新索引
+     */
+    public void put(YapiInterface api) {
+        if (api.getId() == null) {
+            return;
+        }
+        InterfaceVo vo = new InterfaceVo();
+        vo.setId(api.getId());
+        vo.setCatid(api.getCatid());
+        vo.setTitle(api.getTitle());
+        vo.setPath(api.getPath());
+        vo.setMethod(api.getMethod());
+        getCategory(api.getCatid()).put(vo);
+    }
+
+    /**
+     * 获得分类的索引, 首次访问时才拉取
+     *    拉取在分类索引的锁内进行, 不占用map的锁, 同一分类只拉取一次
+     */
+    private CategoryIndex getCategory(Integer catId) {
+        CategoryIndex index = categories.computeIfAbsent(catId, CategoryIndex::new);
+        index.load();
+        return index;
+    }
+
+    /**
+     * 单个分类下的接口索引
+     */
+    private class CategoryIndex {
+
+        private final Integer catId;
+
+        private boolean loaded;
+
+        private final Map<Integer, InterfaceVo> byId = new HashMap<>();
+
+        private final Map<List<String>, InterfaceVo> byTitlePathMethod = new HashMap<>();
+
+        private final Map<List<String>, InterfaceVo> byPathMethod = new HashMap<>();
+
+        private final Map<String, InterfaceVo> byTitle = new HashMap<>();
+
+        CategoryIndex(Integer catId) {
+            this.catId = catId;
+        }
+
+        /**
+         * 分页拉取分类下的所有接口
+         */
+        synchronized void load() {
+            if (loaded) {
+                return;
+            }
+            int fetched = 0;
+            for (int page = 1; ; page++) {
+                YapiListInterfaceResponse response = client.listInterfaceByCat(catId, page, PAGE_SIZE);
+                List<InterfaceVo> list = response != null ? response.getList() : null;
+                if (list == null || list.isEmpty()) {
+                    break;
+                }
+                // 同key取列表中在前的, 与原来按列表顺序查找一致
+                for (InterfaceVo vo : list) {
+                    add(vo, false);
+                }
+                fetched += list.size();
+                Integer total = response.getTotal();
+                if (list.size() < PAGE_SIZE || (total != null && fetched >= total)) {
+                    break;
+                }
+            }
+            loaded = true;
+        }
+
+        synchronized InterfaceVo find(String title, String path, String method) {
+            InterfaceVo vo = byTitlePathMethod.get(Arrays.asList(title, path, method));
+            if (vo == null) {
+                vo = byPathMethod.get(Arrays.asList(path, method));
+            }
+            if (vo == null) {
+                vo = byTitle.get(title);
+            }
+            return vo;
+        }
+
+        /**
+         * 保存的接口: 先移除旧的索引(如标题变了), 再覆盖
+         */
+        synchronized void put(InterfaceVo vo) {
+            InterfaceVo old = byId.get(vo.getId());
+            if (old != null) {
+                byTitlePathMethod.remove(Arrays.asList(old.getTitle(), old.getPath(), old.getMethod()), old);
+                byPathMethod.remove(Arrays.asList(old.getPath(), old.getMethod()), old);
+                byTitle.remove(old.getTitle(), old);
+            }
+            add(vo, true);
+        }
+
+        private void add(InterfaceVo vo, boolean override) {
+            byId.put(vo.getId(), vo);
+            if (override) {
+                byTitlePathMethod.put(Arrays.asList(vo.getTitle(), vo.getPath(), vo.getMethod()), vo);
+                byPathMethod.put(Arrays.asList(vo.getPath(), vo.getMethod()), vo);
+                byTitle.put(vo.getTitle(), vo);
+            } else {
+                byTitlePathMethod.putIfAbsent(Arrays.asList(vo.getTitle(), vo.getPath(), vo.getMethod()), vo);
+                byPathMethod.putIfAbsent(Arrays.asList(vo.getPath(), vo.getMethod()), vo);
+                byTitle.putIfAbsent(vo.getTitle(), vo);
+            }
+        }
+    }
+}
@@ -1,15 +1,10 @@
 package io.yapix.process.yapi.process;
 
-import com.google.common.base.Strings;
 import io.yapix.base.sdk.yapi.YapiClient;
 import io.yapix.base.sdk.yapi.YapiException;
 import io.yapix.base.sdk.yapi.model.InterfaceVo;
-import io.yapix.base.sdk.yapi.model.YapiCategory;
-import io.yapix.base.sdk.yapi.model.YapiCategoryAddRequest;
 import io.yapix.base.sdk.yapi.model.YapiInterface;
-import io.yapix.base.sdk.yapi.model.YapiListInterfaceResponse;
 import io.yapix.model.Api;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -20,17 +15,36 @@ import java.util.concurrent.ConcurrentHashMap;
 public class YapiUploader {
 
     private final YapiClient client;
-    private final Map<String, Integer> menuCatIdCache = new ConcurrentHashMap<>();
+
+    /**
+     * 项目id -> 分类索引, 被所有上传线程共享
+     */
+    private final Map<Integer, YapiCategoryIndex> categoryIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * 分类下的接口索引, 被所有上传线程共享
+     */
+    private final YapiInterfaceIndex interfaceIndex;
 
     public YapiUploader(YapiClient client) {
         this.client = client;
+        this.interfaceIndex = new YapiInterfaceIndex(client);
     }
 
     public YapiInterface upload(Integer projectId, Api api) {
+        return upload(projectId, api, null);
+    }
+
+    /**
+     * 上传接口
+     *
+     * @param remoteId 上传台账中记录的接口id, 有则直接按id获取远程接口
+     */
+    public YapiInterface upload(Integer projectId, Api api, String remoteId) {
         YapiInterface data = YapiDataConvector.convert(projectId, api);
         Integer categoryId = getCatIdOrCreate(data.getProjectId(), data.getMenu());
         data.setCatid(categoryId);
-        addOrUpdate(data);
+        addOrUpdate(data, remoteId);
         return data;
     }
 
@@ -39,55 +53,18 @@ public class YapiUploader {
      * 获取或者创建分类
      */
     public Integer getCatIdOrCreate(Integer projectId, String menu) {
-        return menuCatIdCache.computeIfAbsent(menu, key -> {
-            Integer catId = menuCatIdCache.get(menu);
-            if (catId != null) {
-                return catId;
-            }
-            try {
-                List<YapiCategory> list = client.getCategories(projectId);
-                String[] menus = menu.split("/");
-                // 循环多级菜单，判断是否存在，如果不存在就创建
-                //  解决多级菜单创建问题
-                Integer parent_id = -1;
-                Integer now_id = null;
-                for (int i = 0; i < menus.length; i++) {
-                    if (Strings.isNullOrEmpty(menus[i])) {
-                        continue;
-                    }
-                    boolean needAdd = true;
-                    now_id = null;
-                    for (YapiCategory yapiCategory : list) {
-                        if (yapiCategory.getName().equals(menus[i])) {
-                            needAdd = false;
-                            now_id = yapiCategory.getId();
-                            break;
-                        }
-                    }
-                    if (needAdd) {
-                        now_id = this.addCategory(projectId, parent_id, menus[i]);
-                    }
-                    if (i == (menus.length - 1)) {
-                        catId = now_id;
-                    } else {
-                        parent_id = now_id;
-                    }
-                }
-            } catch (YapiException e) {
-                //出现这种情况可能是yapi 版本不支持
-            }
-            if (catId == null) {
-                catId = addCategory(projectId, -1, menu);
-            }
-            return catId;
-        });
+        return categoryIndexes.computeIfAbsent(projectId, id -> new YapiCategoryIndex(client, id))
+                .getCatIdOrCreate(menu);
     }
 
     /**
      * 创建或更新接口
      */
-    private void addOrUpdate(YapiInterface api) {
-        YapiInterface originApi = findInterface(api);
+    private void addOrUpdate(YapiInterface api, String remoteId) {
+        YapiInterface originApi = remoteId != null ? getInterface(api, remoteId) : null;
+        if (originApi == null) {
+            originApi = findInterface(api);
+        }
         if (originApi != null) {
             api.setId(originApi.getId());
             if (!YapiInterfaceModifyJudge.isModify(originApi, api)) {
@@ -95,43 +72,32 @@ public class YapiUploader {
             }
         }
         client.saveInterface(api);
+        interfaceIndex.put(api);
     }
 
-    private YapiInterface findInterface(YapiInterface yapiInterface) {
-        // 比较: title + path + method
-        YapiListInterfaceResponse interfacesList = client.listInterfaceByCat(yapiInterface.getCatid(), 1, 1000);
-        InterfaceVo originInterface = interfacesList.getList().stream()
-                .filter(o -> Objects.equals(o.getTitle(), yapiInterface.getTitle())
-                        && Objects.equals(o.getPath(), yapiInterface.getPath())
-                        && Objects.equals(o.getMethod(), yapiInterface.getMethod()))
-                .findFirst().orElse(null);
-        // 比较: path + method
-        if (originInterface == null) {
-            originInterface = interfacesList.getList().stream()
-                    .filter(o -> Objects.equals(o.getPath(), yapiInterface.getPath())
-                            && Objects.equals(o.getMethod(), yapiInterface.getMethod()))
-                    .findFirst().orElse(null);
-        }
-        // 比较: title
-        if (originInterface == null) {
-            originInterface = interfacesList.getList().stream()
-                    .filter(o -> Objects.equals(o.getTitle(), yapiInterface.getTitle()))
-                    .findFirst().orElse(null);
+    /**
+     * 按台账中的id获取远程接口, 接口已被删除或路径已变化则返回null
+     */
+    private YapiInterface getInterface(YapiInterface api, String remoteId) {
+        try {
+            YapiInterface originApi = client.getInterface(Integer.parseInt(remoteId));
+            if (originApi != null && Objects.equals(originApi.getPath(), api.getPath())
+                    && Objects.equals(originApi.getMethod(), api.getMethod())) {
+                return originApi;
+            }
+        } catch (YapiException | NumberFormatException e) {
+            // 台账过期: 按分类查找
         }
+        return null;
+    }
+
+    private YapiInterface findInterface(YapiInterface yapiInterface) {
+        // 比较: title + path + method > path + method > title
+        InterfaceVo originInterface = interfaceIndex.find(yapiInterface);
         if (originInterface != null) {
             return client.getInterface(originInterface.getId());
         }
         return null;
     }
 
-
-    /**
-     * 创建分类
-     */
-    private Integer addCategory(Integer projectId, Integer parent_id, String menu) {
-        YapiCategoryAddRequest req = new YapiCategoryAddRequest(menu, projectId, parent_id);
-        YapiCategory category = client.addCategory(req);
-        return category.getId();
-    }
-
 }
@@ -0,0 +1,52 @@
+package io.yapix.parse.parser
+
+import io.yapix.model.DataTypes
+
+/**
+ * 循环引用: 调用链中已有的类被截断, 解析完出栈后兄弟字段仍可完整展开
+ */
+class KernelParserCycleTest : KernelParserTestCase() {
+
+    override fun setUp() {
+        super.setUp()
+        myFixture.addClass("package demo; public class A { public String name; public B b; public B other; }")
+        myFixture.addClass("package demo; public class B { public String code; public A a; }")
+        myFixture.addClass("package demo; import java.util.*; public class Node { public Node next; public List<Node> children; }")
+    }
+
+    fun testCycleIsCut() {
+        val a = parseReturnType("A")
+
+        assertEquals(DataTypes.STRING, a.at("b.code").type)
+        // A -> B -> A: 第二次进入A时截断
+        val cut = a.at("b.a")
+        assertEquals(DataTypes.OBJECT, cut.type)
+        assertNull(cut.properties)
+    }
+
+    fun testSiblingIsExpanded() {
+        val a = parseReturnType("A")
+
+        // b解析完后B已出栈, 兄弟字段other同样完整展开
+        assertEquals(a.at("b").properties!!.keys, a.at("other").properties!!.keys)
+        assertEquals(DataTypes.STRING, a.at("other.code").type)
+        assertNull(a.at("other.a").properties)
+    }
+
+    fun testSelfReference() {
+        val node = parseReturnType("Node")
+
+        assertNull(node.at("next").properties)
+        assertEquals(DataTypes.ARRAY, node.at("children").type)
+        assertNull(node.at("children.items").properties)
+    }
+
+    fun testChainIsResetBetweenTypes() {
+        parseReturnType("A")
+        val b = parseReturnType("B")
+
+        // 上次解析的调用链不影响本次: B -> A 展开, A -> B 截断
+        assertEquals(DataTypes.STRING, b.at("a.name").type)
+        assertNull(b.at("a.b").properties)
+    }
+}
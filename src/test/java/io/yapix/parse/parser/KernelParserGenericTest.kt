@@ -0,0 +1,48 @@
+package io.yapix.parse.parser
+
+import io.yapix.model.DataTypes
+
+/**
+ * 泛型解析: 泛型参数经PsiSubstitutor替换, 包括父类中声明的字段与嵌套泛型
+ */
+class KernelParserGenericTest : KernelParserTestCase() {
+
+    override fun setUp() {
+        super.setUp()
+        myFixture.addClass("package demo; public class User { public String name; public Integer age; }")
+        myFixture.addClass("package demo; import java.util.*; public class Base<T> { public T data; public List<T> rows; }")
+        myFixture.addClass("package demo; import java.util.*; public class Page<T> extends Base<T> {"
+                + " public Map<String, List<T>> groups; public int total; }")
+    }
+
+    fun testGenericFields() {
+        val page = parseReturnType("Page<User>")
+
+        assertEquals(DataTypes.INTEGER, page.at("total").type)
+        // 父类中声明的字段
+        assertEquals(DataTypes.STRING, page.at("data.name").type)
+        assertEquals(DataTypes.INTEGER, page.at("data.age").type)
+        assertEquals(DataTypes.ARRAY, page.at("rows").type)
+        assertEquals(DataTypes.STRING, page.at("rows.items.name").type)
+        // 嵌套泛型: Map<String, List<User>>
+        assertEquals(DataTypes.OBJECT, page.at("groups").type)
+        assertEquals(DataTypes.ARRAY, page.at("groups.KEY").type)
+        assertEquals(DataTypes.STRING, page.at("groups.KEY.items.name").type)
+    }
+
+    fun testNestedGenericArgument() {
+        val page = parseReturnType("Page<List<User>>")
+
+        assertEquals(DataTypes.ARRAY, page.at("data").type)
+        assertEquals(DataTypes.STRING, page.at("data.items.name").type)
+        assertEquals(DataTypes.STRING, page.at("rows.items.items.name").type)
+    }
+
+    fun testStringShorthandInGenericArgument() {
+        val method = addApiMethod("Object")
+
+        val list = parser.parseType("List<string>", method)!!
+        assertEquals(DataTypes.ARRAY, list.type)
+        assertEquals(DataTypes.STRING, list.items!!.type)
+    }
+}
@@ -0,0 +1,55 @@
+package io.yapix.parse.parser
+
+import com.intellij.psi.PsiMethod
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase
+import io.yapix.config.YapixConfig
+import io.yapix.model.Property
+import io.yapix.parse.ParseSession
+import io.yapix.parse.cache.SchemaCacheService
+
+/**
+ * KernelParser测试基类
+ *    类型结构缓存是项目级别的, 轻量测试共用项目, 因此每个测试前清空
+ */
+abstract class KernelParserTestCase : LightJavaCodeInsightFixtureTestCase() {
+
+    protected lateinit var parser: KernelParser
+
+    private var apiCount = 0
+
+    override fun setUp() {
+        super.setUp()
+        SchemaCacheService.getInstance(project).clear()
+        val session = ParseSession(project, myFixture.module, YapixConfig.getMergedInternalConfig(YapixConfig()))
+        parser = KernelParser(session, true)
+    }
+
+    /**
+     * 添加返回指定类型的接口方法
+     * @param returnType 返回类型, 如 Page<User>
+     */
+    protected fun addApiMethod(returnType: String): PsiMethod {
+        val name = "Api" + apiCount++
+        val api = myFixture.addClass("package demo; import java.util.*; public class $name { public $returnType get() { return null; } }")
+        return api.findMethodsByName("get", false)[0]
+    }
+
+    /**
+     * 解析接口方法的返回类型
+     */
+    protected fun parseReturnType(returnType: String): Property {
+        val method = addApiMethod(returnType)
+        return parser.parseType(method.returnType, method)!!
+    }
+
+    /**
+     * 按路径获取属性, 如 rows.items.name 中 items 表示数组元素
+     */
+    protected fun Property.at(path: String): Property {
+        var property = this
+        for (name in path.split('.')) {
+            property = if (name == "items") property.items!! else property.properties!![name]!!
+        }
+        return property
+    }
+}